@@ -0,0 +1,72 @@
+
+/* AgedWorstOutEviction class
+ *
+ * binMeta project
+ *
+ * Age-weighted Worst-Out eviction policy: the victim is the entry having the worst (largest) objective
+ * function value among the w oldest entries. The age of the entries is therefore as important as their
+ * value: new entries cannot be evicted before w other entries are loaded, while old entries are evicted
+ * only when they are bad enough (for w = 1, it is the FIFO policy; for w = capacity, it is the Worst-Out
+ * policy). The entries are kept in the intrusive list of the FIFO policy: every notification takes O(1)
+ * time, and the selection of the victim takes O(w) time.
+ *
+ * last update: October 18, 2026
+ *
+ * AM
+ */
+
+public class AgedWorstOutEviction extends FifoEviction
+{
+   private int w;  // window (number of oldest entries where the victim is selected)
+
+   // AgedWorstOutEviction constructor
+   public AgedWorstOutEviction(int w)
+   {
+      super();
+      try
+      {
+         if (w <= 0) throw new Exception("AgedWorstOutEviction: the window size must be positive");
+      }
+      catch (Exception e)
+      {
+         e.printStackTrace();
+         System.exit(1);
+      }
+
+      this.w = w;
+   }
+
+   // AgedWorstOutEviction constructor (default window size is 4)
+   public AgedWorstOutEviction()
+   {
+      this(4);
+   }
+
+   // getName
+   @Override
+   public String getName()
+   {
+      return "AWO";
+   }
+
+   // victim (the worst among the w first entries in the list; ties are broken by the smallest position)
+   @Override
+   public int victim()
+   {
+      int worst = -1;
+      double worstValue = 0.0;
+      int i = this.oldest;
+      for (int t = 0; t < this.w && i != -1; t++)
+      {
+         double value = this.M.valueAt(i);
+         if (worst == -1 || value > worstValue || (value == worstValue && i < worst))
+         {
+            worst = i;
+            worstValue = value;
+         }
+         i = this.newer[i];
+      }
+      return worst;
+   }
+}
+
@@ -0,0 +1,107 @@
+
+/* ClockEviction class
+ *
+ * binMeta project
+ *
+ * CLOCK eviction policy (also known as "second chance"): an approximation of the LRU policy where every
+ * access only sets a reference bit. To select the victim, a "hand" sweeps the positions of the Memory in
+ * circular order: the entries with the reference bit set get a second chance (the bit is cleared), and
+ * the first entry found with the reference bit not set is the victim. Every access takes O(1) time,
+ * and the selection of the victim takes O(1) amortized time.
+ *
+ * last update: October 18, 2026
+ *
+ * AM
+ */
+
+public class ClockEviction implements EvictionPolicy
+{
+   private Memory M;  // the Memory object the policy is attached to
+   private boolean[] used;  // positions containing a Data entry
+   private boolean[] referenced;  // reference bits
+   private int hand;  // the next position to be examined
+
+   // ClockEviction constructor
+   public ClockEviction()
+   {
+      this.M = null;
+   }
+
+   // getName
+   @Override
+   public String getName()
+   {
+      return "CLOCK";
+   }
+
+   // attach
+   @Override
+   public void attach(Memory M)
+   {
+      try
+      {
+         if (M == null) throw new Exception("ClockEviction: the Memory object is null");
+         if (this.M != null) throw new Exception("ClockEviction: the policy is already attached to another Memory object");
+      }
+      catch (Exception e)
+      {
+         e.printStackTrace();
+         System.exit(1);
+      }
+
+      this.M = M;
+      this.used = new boolean [M.getCapacity()];
+      this.referenced = new boolean [M.getCapacity()];
+      this.hand = 0;
+   }
+
+   // loaded (loading is the first reference)
+   @Override
+   public void loaded(int i)
+   {
+      this.used[i] = true;
+      this.referenced[i] = true;
+   }
+
+   // accessed
+   @Override
+   public void accessed(int i)
+   {
+      this.referenced[i] = true;
+   }
+
+   // removed
+   @Override
+   public void removed(int i)
+   {
+      this.used[i] = false;
+      this.referenced[i] = false;
+   }
+
+   // exchanged
+   @Override
+   public void exchanged(int i,int j)
+   {
+      boolean u = this.used[i];  this.used[i] = this.used[j];  this.used[j] = u;
+      boolean r = this.referenced[i];  this.referenced[i] = this.referenced[j];  this.referenced[j] = r;
+   }
+
+   // victim (gives -1 when the Memory is empty)
+   // -> at most two rounds are necessary: all reference bits are cleared during the first one
+   @Override
+   public int victim()
+   {
+      int capacity = this.used.length;
+      for (int step = 0; step < 2*capacity; step++)
+      {
+         int i = this.hand;
+         this.hand++;
+         if (this.hand == capacity)  this.hand = 0;
+         if (!this.used[i])  continue;
+         if (!this.referenced[i])  return i;
+         this.referenced[i] = false;
+      }
+      return -1;
+   }
+}
+
@@ -3,7 +3,7 @@
  *
  * binMeta project
  *
- * last update: April 16, 2023
+ * last update: October 18, 2026
  *
  * AM
  */
@@ -132,21 +132,15 @@ public class ColorPartition implements Objective
    {
       if (this.matrix == null)  return "[" + this.getName() + ": not evaluated yet]";
 
-      String print = "";
+      StringBuilder print = new StringBuilder((this.m + 1)*this.n + 32);
       for (int i = 0; i < n; i++)    // graphic representation of the last matrix
       {                              // (true = "x"; false = "o")
-         for (int j = 0; j < m; j++)
-         {
-            if (this.matrix[i][j])
-               print = print + "x";
-            else
-               print = print + "o";
-         }
-         print = print + "\n";
+         for (int j = 0; j < m; j++)  print.append(this.matrix[i][j] ? 'x' : 'o');
+         print.append('\n');
       }
-      print = print + "> value: " + this.value + "\n";
+      print.append("> value: ").append(this.value).append('\n');
 
-      return print;
+      return print.toString();
    }
 
    // main
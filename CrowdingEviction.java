@@ -0,0 +1,317 @@
+
+/* CrowdingEviction class
+ *
+ * binMeta project
+ *
+ * Crowding eviction policy, meant for preserving the diversity of populations of solutions: a new entry
+ * replaces its nearest entry (in terms of Hamming distance) if it is better (its objective function value
+ * is smaller), and the worst entry otherwise. Therefore, a region of the search space can only be occupied
+ * by better and better entries, while the worst entries are evicted when new regions are discovered.
+ *
+ * In small Memory objects, the nearest entry is found with a linear scan. In large ones (capacity of at
+ * least 500 entries by default), it is found with a BK-tree (Burkhard-Keller tree), a metric tree where every
+ * child is labelled with its Hamming distance to the parent: because of the triangle inequality, the search only
+ * visits the subtrees whose label is close enough to the distance between the new Data object and the parent.
+ * The subtrees are visited in increasing order of this lower bound (best-first search), so that a near entry
+ * is found early, and most of the other subtrees are discarded. When the tree cannot prune (the entries are
+ * all at similar distances from the new Data object), the search gives up after a few visits, and the nearest
+ * entry is found with a linear scan.
+ * The removed entries are kept in the tree (they are still useful for guiding the search), and the tree is
+ * rebuilt when its nodes (current and removed entries) become twice as many as the capacity of the Memory object.
+ *
+ * All Data objects in the Memory object need to have the same length.
+ *
+ * last update: October 18, 2026
+ *
+ * AM
+ */
+
+public class CrowdingEviction implements EvictionPolicy
+{
+   private Memory M;  // the Memory object the policy is attached to
+   private int treeCapacity;  // minimal capacity of the Memory object for the BK-tree to be used
+   private int length;  // length of the Data objects in Memory (-1 when not known yet)
+   private int nNodes;  // number of nodes in the tree (the root is node 0)
+   private int nRemoved;  // number of nodes of removed entries
+   private Data[] key;  // the Data object of every node
+   private int[] pos;  // the position in Memory of every node (-1 for removed entries)
+   private int[] dist;  // the Hamming distance of every node to its parent
+   private int[] child;  // the first child of every node (-1 when no children)
+   private int[] sibling;  // the next sibling of every node (-1 for the last child)
+   private int[] node;  // the node of every position in Memory (-1 for empty positions)
+   private int[] queue;  // priority queue (binary heap) of the nodes to be visited during the search
+   private int[] bound;  // lower bounds on the distance to the Data object for the nodes in the queue
+
+   // CrowdingEviction constructor (the BK-tree is used when the capacity of the Memory object is at least treeCapacity)
+   public CrowdingEviction(int treeCapacity)
+   {
+      try
+      {
+         if (treeCapacity < 0) throw new Exception("CrowdingEviction: the minimal capacity for the BK-tree cannot be negative");
+      }
+      catch (Exception e)
+      {
+         e.printStackTrace();
+         System.exit(1);
+      }
+
+      this.M = null;
+      this.treeCapacity = treeCapacity;
+   }
+
+   // CrowdingEviction constructor (the BK-tree is used when the capacity of the Memory object is at least 500)
+   // -> below this capacity, a linear scan was faster on most tested distributions of the entries
+   public CrowdingEviction()
+   {
+      this(500);
+   }
+
+   // getName
+   @Override
+   public String getName()
+   {
+      return "CROWDING";
+   }
+
+   // attach
+   @Override
+   public void attach(Memory M)
+   {
+      try
+      {
+         if (M == null) throw new Exception("CrowdingEviction: the Memory object is null");
+         if (this.M != null) throw new Exception("CrowdingEviction: the policy is already attached to another Memory object");
+      }
+      catch (Exception e)
+      {
+         e.printStackTrace();
+         System.exit(1);
+      }
+
+      this.M = M;
+      this.length = -1;
+      int capacity = M.getCapacity();
+      if (capacity < this.treeCapacity)  return;  // no BK-tree
+      this.nNodes = 0;
+      this.nRemoved = 0;
+      this.key = new Data [2*capacity];
+      this.pos = new int [2*capacity];
+      this.dist = new int [2*capacity];
+      this.child = new int [2*capacity];
+      this.sibling = new int [2*capacity];
+      this.queue = new int [2*capacity];
+      this.bound = new int [2*capacity];
+      this.node = new int [capacity];
+      for (int i = 0; i < capacity; i++)  this.node[i] = -1;
+   }
+
+   // loaded (the new entry is inserted in the tree)
+   @Override
+   public void loaded(int i)
+   {
+      Data D = this.M.dataAt(i);
+      try
+      {
+         if (this.length != -1 && D.length() != this.length) throw new Exception("CrowdingEviction: the Data objects differ in length");
+      }
+      catch (Exception e)
+      {
+         e.printStackTrace();
+         System.exit(1);
+      }
+
+      this.length = D.length();
+      if (this.key == null)  return;
+      if (this.nNodes == this.key.length)  this.rebuild();
+      this.insert(i,D);
+   }
+
+   // accessed
+   @Override
+   public void accessed(int i)
+   {
+   }
+
+   // removed (the node is only marked as removed)
+   @Override
+   public void removed(int i)
+   {
+      if (this.key == null)  return;
+      int x = this.node[i];
+      if (x == -1)  return;
+      this.pos[x] = -1;
+      this.node[i] = -1;
+      this.nRemoved++;
+   }
+
+   // exchanged
+   @Override
+   public void exchanged(int i,int j)
+   {
+      if (this.key == null)  return;
+      int x = this.node[i];
+      this.node[i] = this.node[j];
+      this.node[j] = x;
+      if (this.node[i] != -1)  this.pos[this.node[i]] = i;
+      if (this.node[j] != -1)  this.pos[this.node[j]] = j;
+   }
+
+   // victim (with no information on the new entry, it is the worst entry)
+   @Override
+   public int victim()
+   {
+      return this.M.indexOfWorst();
+   }
+
+   // victim (the nearest entry if the new entry is better, the worst entry otherwise)
+   @Override
+   public int victim(Data data,double value)
+   {
+      int nearest = this.nearest(data);
+      if (nearest != -1 && value < this.M.valueAt(nearest))  return nearest;
+      return this.M.indexOfWorst();
+   }
+
+   // nearest: gives the position of the entry that is nearest to the given Data object (-1 when Memory is empty)
+   // -> ties are broken by the smallest position
+   // -> when the tree is not used, or when it does not prune (clustered or unrelated entries), it is a linear scan
+   public int nearest(Data data)
+   {
+      if (this.key == null)  return this.scan(data);
+      if (this.nNodes == 0)  return -1;
+      int best = Integer.MAX_VALUE;
+      int bestPos = -1;
+      int budget = 8 + (this.nNodes - this.nRemoved)/16;
+      int size = this.push(0,0,0);
+      while (size > 0 && this.bound[0] <= best)
+      {
+         if (budget-- == 0)  return this.scan(data);
+         int y = this.queue[0];
+         size = this.pop(size);
+         int d = data.hammingDistanceTo(this.key[y]);
+         int p = this.pos[y];
+         if (p != -1 && (d < best || (d == best && p < bestPos)))
+         {
+            best = d;
+            bestPos = p;
+         }
+
+         // the entries in the subtree of c are at distance dist[c] from y, hence at least |d - dist[c]| from data
+         for (int c = this.child[y]; c != -1; c = this.sibling[c])
+         {
+            int lb = Math.abs(d - this.dist[c]);
+            if (lb <= best)  size = this.push(size,c,lb);
+         }
+      }
+      return bestPos;
+   }
+
+   // scan (private): linear search of the nearest entry
+   private int scan(Data data)
+   {
+      int best = Integer.MAX_VALUE;
+      int bestPos = -1;
+      int capacity = this.M.getCapacity();
+      for (int i = 0; i < capacity; i++)
+      {
+         Data D = this.M.dataAt(i);
+         if (D == null)  continue;
+         int d = data.hammingDistanceTo(D);
+         if (d < best)
+         {
+            best = d;
+            bestPos = i;
+         }
+      }
+      return bestPos;
+   }
+
+   // push (private): it adds node x with lower bound lb to the priority queue, and gives the new size of the queue
+   private int push(int size,int x,int lb)
+   {
+      int k = size;
+      while (k > 0)
+      {
+         int parent = (k - 1) >>> 1;
+         if (this.bound[parent] <= lb)  break;
+         this.queue[k] = this.queue[parent];
+         this.bound[k] = this.bound[parent];
+         k = parent;
+      }
+      this.queue[k] = x;
+      this.bound[k] = lb;
+      return size + 1;
+   }
+
+   // pop (private): it removes the node with smallest lower bound from the priority queue, and gives the new size of the queue
+   private int pop(int size)
+   {
+      size--;
+      int x = this.queue[size];
+      int lb = this.bound[size];
+      int k = 0;
+      int child = 1;
+      while (child < size)
+      {
+         if (child + 1 < size && this.bound[child + 1] < this.bound[child])  child++;
+         if (this.bound[child] >= lb)  break;
+         this.queue[k] = this.queue[child];
+         this.bound[k] = this.bound[child];
+         k = child;
+         child = 2*k + 1;
+      }
+      this.queue[k] = x;
+      this.bound[k] = lb;
+      return size;
+   }
+
+   // insert (private): it inserts a new node for the entry at position i
+   private void insert(int i,Data D)
+   {
+      int x = this.nNodes;
+      this.nNodes++;
+      this.key[x] = D;
+      this.pos[x] = i;
+      this.child[x] = -1;
+      this.sibling[x] = -1;
+      this.node[i] = x;
+      if (x == 0)  return;
+
+      // going down the tree, along the children having the same distance
+      int y = 0;
+      while (true)
+      {
+         int d = D.hammingDistanceTo(this.key[y]);
+         int c = this.child[y];
+         while (c != -1 && this.dist[c] != d)  c = this.sibling[c];
+         if (c == -1)
+         {
+            this.dist[x] = d;
+            this.sibling[x] = this.child[y];
+            this.child[y] = x;
+            return;
+         }
+         y = c;
+      }
+   }
+
+   // rebuild (private): the tree is rebuilt with the current entries only
+   private void rebuild()
+   {
+      int n = 0;
+      int[] positions = new int [this.nNodes - this.nRemoved];
+      Data[] keys = new Data [positions.length];
+      for (int x = 0; x < this.nNodes; x++)
+      {
+         if (this.pos[x] == -1)  continue;
+         positions[n] = this.pos[x];
+         keys[n] = this.key[x];
+         n++;
+      }
+      for (int x = 0; x < this.nNodes; x++)  this.key[x] = null;
+      this.nNodes = 0;
+      this.nRemoved = 0;
+      for (int k = 0; k < n; k++)  this.insert(positions[k],keys[k]);
+   }
+}
+
@@ -3,27 +3,45 @@
  *
  * binMeta project
  *
- * last update: October 25, 2022
+ * last update: October 18, 2026
  *
  * AM
  */
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Set;
 import java.util.TreeSet;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Random;
 import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.function.IntConsumer;
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
 
 public class Data implements Comparable<Data>, Iterable<Integer>
 {
-   private int size;  // actual size (may not be a multiple of 8)
-   private ArrayList<Byte> data;  // the data are stored as lists of bytes
+   private int size;  // actual size (may not be a multiple of 64)
+   protected long[] words;  // the data are stored as arrays of 64-bit words (first bit is the most significant one)
+   private int offset;  // index in 'words' of the first bit (always 0, except for views)
+   private boolean view;  // true when 'words' is shared with another Data object (bits out of range are not masked)
+   private long hash;  // cached 64-bit hash of the (uncontracted) bit sequence
+   private boolean hashed;  // true when the cached hash is valid
+   private long fingerprint;  // cached 64-bit Zobrist fingerprint of the (uncontracted) bit sequence
+   private boolean fingerprinted;  // true when the cached fingerprint is valid
    private HashMap<Integer,Data> contracted;  // contracted sequences
+   private HashMap<Integer,Data> ctable;  // HashMap of contracted sequences from which the interval table was built
+   private int[] cbits;  // interval table: sorted indices of the bits representing contracted sequences
+   private int[] cstart;  // interval table: positions of the contracted sequences once uncontracted (last entry is the length)
+   private static double[] logFactorials = {0.0,0.0};  // table of logarithms of factorials (entry i is log(i!))
+   private static Random random = new Random();  // Random object used when none is given in input
+   private static volatile long[] keys = {};  // table of the random keys of the bit positions, for fingerprints (see 'keys')
 
    /* constructors */
 
@@ -35,14 +53,13 @@ public class Data implements Comparable<Data>, Iterable<Integer>
       {
          if (n <= 0) throw new Exception("Specified size for Data object is nonpositive");
 
-         int N = 1 + (n - 1)/8;
-         this.data = new ArrayList<Byte> (N);
-         int bi = 0;  if (bitValue)  bi = ~bi;
-         byte b = (byte) bi; 
-         for (int i = 0; i < N - 1; i++)  this.data.add(b);
-         int exb = 8 - n%8;
-         if (exb != 8)  b = (byte) Data.mask_bits(bi,exb);
-         this.data.add(b);
+         int N = Data.numberOfWords(n);
+         this.words = new long [N];
+         if (bitValue)
+         {
+            Arrays.fill(this.words,-1L);
+            this.words[N-1] = Data.mask_bits(-1L,n);
+         }
          this.size = n;
          this.contracted = null;
       }
@@ -64,40 +81,15 @@ public class Data implements Comparable<Data>, Iterable<Integer>
          if (R == null) throw new Exception("Input Random object is null");
          if (p < 0.0 || p > 1.0) throw new Exception("Specified probability p should be contained in the interval [0,1]");
 
-         // randomly choosing the bits to be set to 1
-         boolean [] bits = new boolean [n];
-         for (int k = 0; k < n; k++)  bits[k] = false;
+         // randomly choosing the number of bits to be set to 1
          int lb = (int) Math.floor(p*n);
          int ub = lb;  if (p < 0.99)  ub = (int) Math.floor((p + 0.01)*n);
          int nones = lb;
          if (ub - lb > 0)  nones = nones + R.nextInt(ub - lb);
-         int c = 0;
-         while (c != nones)
-         {
-            int k = R.nextInt(n);
-            if (!bits[k])
-            {
-               bits[k] = true;
-               c++;
-            }
-         }
 
-         // constructing the Data object
-         int k = 0; 
-         int N = 1 + (n - 1)/8;
-         this.data = new ArrayList<Byte> (N);
-         for (int i = 0; i < N; i++)
-         {  
-            int bi = 0;
-            for (int j = 0; j < 8; j++)
-            {  
-               if (k < n && bits[k])  bi = bi + 1;
-               if (j != 7)  bi = bi << 1;
-               k++;
-            }
-            byte b = (byte) bi;
-            this.data.add(b);
-         }
+         // randomly choosing the bits to be set to 1, directly in the words of the Data object
+         this.words = new long [Data.numberOfWords(n)];
+         Data.randomBits(this.words,n,null,nones,R);
          this.size = n;
          this.contracted = null;
       }
@@ -110,10 +102,10 @@ public class Data implements Comparable<Data>, Iterable<Integer>
 
    // Data constructor: it generates a random Data object consisting of n bits
    // - and with probability p in [0,1] to have bits equal to 1
-   // - the Random object for the random choices is internally instantiated
+   // - the Random object for the random choices is shared among all Data objects
    public Data(int n,double p)
    {
-      this(n,new Random(),p);
+      this(n,Data.random,p);
    }
 
    // Data constructor: it generates a new Data object by setting at 1 all bits indicated in input Set object
@@ -125,20 +117,10 @@ public class Data implements Comparable<Data>, Iterable<Integer>
          if (n <= 0) throw new Exception("Specified size for Data object is nonpositive");
          if (ones == null) throw new Exception("Specified Set object is null");
 
-         int k = 0;
-         int N = 1 + (n - 1)/8;
-         this.data = new ArrayList<Byte> (N);
-         for (int i = 0; i < N; i++)
+         this.words = new long [Data.numberOfWords(n)];
+         for (Integer k : ones)
          {
-            int bi = 0;
-            for (int j = 0; j < 8; j++)
-            {
-               if (k < n && ones.contains(8*i + j))  bi = bi + 1;
-               if (j != 7)  bi = bi << 1;
-               k++;
-            }
-            byte b = (byte) bi;
-            this.data.add(b);
+            if (k != null && k >= 0 && k < n)  this.words[k >>> 6] |= Long.MIN_VALUE >>> k;
          }
          this.size = n;
          this.contracted = null;
@@ -158,23 +140,24 @@ public class Data implements Comparable<Data>, Iterable<Integer>
       {
          if (D == null) throw new Exception("Input Data object is null");
          this.size = D.size;
-         int nbytes = D.numberOfBytes();
-         this.data = new ArrayList<Byte> (nbytes);
-         for (int k = 0; k < nbytes; k++)
+         int N = Data.numberOfWords(this.size);
+         if (D.view)
          {
-            byte b = D.data.get(k);
-            if (flip)
-            {
-               int bi = b;
-               bi = ~bi;
-               if (k == nbytes - 1)
-               {
-                  int exb = 8 - this.size%8;
-                  if (exb != 8)  bi = Data.mask_bits(bi,exb);
-               }
-               b = (byte) bi;
-            }
-            this.data.add(b);
+            this.words = new long [N];
+            for (int k = 0; k < N; k++)  this.words[k] = D.word(k);
+         }
+         else  this.words = Arrays.copyOf(D.words,N);
+         if (flip)
+         {
+            for (int k = 0; k < N; k++)  this.words[k] = ~this.words[k];
+            this.words[N-1] = Data.mask_bits(this.words[N-1],this.size);
+         }
+         else
+         {
+            this.hash = D.hash;
+            this.hashed = D.hashed;
+            this.fingerprint = D.fingerprint;
+            this.fingerprinted = D.fingerprinted;
          }
          this.contracted = null;
          if (D.containsContractedSequences())
@@ -205,35 +188,14 @@ public class Data implements Comparable<Data>, Iterable<Integer>
          if (s == null) throw new Exception("Input String object is null");
          if (s.length() == 0) throw new Exception("Input String object is empty");
          this.size = s.length();
-         int N = 1 + (this.size - 1)/8;
-         this.data = new ArrayList<Byte> (N);
-         int k = 1;
-         int bi = 0;
-         for (int i = 0; i < s.length(); i++)
+         this.words = new long [Data.numberOfWords(this.size)];
+         for (int i = 0; i < this.size; i++)
          {
             char c = s.charAt(i);
             if (c == '1')
-               bi = bi | 1;
+               this.words[i >>> 6] |= Long.MIN_VALUE >>> i;
             else if (c != '0')
                throw new Exception("The input String is supposed to contain '0' and '1' characters only");
-            if (k < 8)
-            {
-               bi = bi << 1;
-               k++;
-            }
-            else
-            {
-               byte b = (byte) bi;
-               this.data.add(b);
-               bi = 0;
-               k = 1;
-            }
-         }
-         if (k != 1)
-         {
-            bi = bi << (8 - k);
-            byte b = (byte) bi;
-            this.data.add(b);
          }
          this.contracted = null;
       }
@@ -255,46 +217,11 @@ public class Data implements Comparable<Data>, Iterable<Integer>
 
          // setting up main attributes
          this.size = D1.size + D2.size;
-         int N = 1 + (this.size - 1)/8;
-         this.data = new ArrayList<Byte> (N);
-
-         // if the D1 has a number of bits multiple of 8, it's simple
-         if (D1.numberOfBits()%8 == 0)
-         {
-            for (int k = 0; k < D1.numberOfBytes(); k++)  this.data.add(D1.data.get(k));
-            for (int k = 0; k < D2.numberOfBytes(); k++)  this.data.add(D2.data.get(k));
-         }
-         else
-         {
-            // copying first Data object
-            int k = 0;
-            for (; k < D1.numberOfBytes() - 1; k++)  this.data.add(D1.data.get(k));
+         this.words = new long [Data.numberOfWords(this.size)];
 
-            // concatenating
-            int outphase2 = D1.numberOfBits()%8;
-            int outphase1 = 8 - outphase2;
-            int mask = 0;
-            for (int i = 0; i < outphase1; i++)  mask = mask | (1 << i);
-            int bi = D1.data.get(k) | ((D2.data.get(0) >> outphase2) & mask);
-            byte b = (byte) bi;
-            this.data.add(b);
-
-            // continuing with the second Data object
-            bi = D2.data.get(0) << outphase1;
-            k = 1;
-            for (; k < D2.numberOfBytes(); k++)
-            {
-               bi = bi | ((D2.data.get(k) >> outphase2) & mask);
-               b = (byte) bi;
-               this.data.add(b);
-               bi = D2.data.get(k) << outphase1;
-            }
-            if (this.data.size() < N)
-            {
-               b = (byte) bi;
-               this.data.add(b);
-            }
-         }
+         // concatenating (the bits of D2 are copied right after the ones of D1)
+         Data.copyBits(D1,0,this.words,0,D1.size);
+         Data.copyBits(D2,0,this.words,D1.size,D2.size);
 
          // concatenating the two lists of contracted bit sequences
          this.contracted = null;
@@ -327,6 +254,8 @@ public class Data implements Comparable<Data>, Iterable<Integer>
    // Data constructor: it generates a new Data object by extracting a specific subsequence of bits from an existing Data object
    // - the first specified bit is included; the last specified bit is not included
    // - the operation also includes contracted sequences
+   // - the new object is a view: it shares the bits of D without copying them (unless D is a MutableData object);
+   //   notice that a view keeps the whole storage of D in memory
    public Data(Data D,int first,int last)
    {
       try
@@ -342,24 +271,20 @@ public class Data implements Comparable<Data>, Iterable<Integer>
 
          // main data
          this.size = last - first;
-         int N = 1 + (this.size - 1)/8;
-         this.data = new ArrayList<Byte> (N);
-         int pointer = first;
-         for (int i = 0; i < N; i++)
+         if (D instanceof MutableData)
          {
-            int bi = 0;
-            for (int j = 0; j < 8; j++)
-            {
-               if (pointer < last)
-               {
-                  int bit = D.getBit(pointer);
-                  bi = bi + bit;
-               }
-               if (j != 7)  bi = bi << 1;
-               pointer++;
-            }
-            byte b = (byte) bi;
-            this.data.add(b);
+            // the bits of a MutableData object can change: they are copied
+            int N = Data.numberOfWords(this.size);
+            this.words = new long [N];
+            for (int i = 0; i < N; i++)  this.words[i] = D.bitsAt(first + 64*i);
+            this.words[N-1] = Data.mask_bits(this.words[N-1],this.size);
+         }
+         else
+         {
+            // sharing the storage of D
+            this.words = D.words;
+            this.offset = D.offset + first;
+            this.view = true;
          }
 
          // contracted bits
@@ -369,8 +294,7 @@ public class Data implements Comparable<Data>, Iterable<Integer>
             this.contracted = new HashMap<Integer,Data> ();
             for (Integer f : D.contracted.keySet())
             {
-               Data C = new Data(D.contracted.get(f));
-               if (f >= first && f < last)  this.contracted.put(f - first,C);
+               if (f >= first && f < last)  this.contracted.put(f - first,new Data(D.contracted.get(f)));
             }
             if (this.contracted.size() == 0)  this.contracted = null;
          }
@@ -385,6 +309,7 @@ public class Data implements Comparable<Data>, Iterable<Integer>
    // Data constructor: it generates a new Data object by combining two Data objects having the same size by applying 
    // - one of the following bitwise operators: and, or, xor.
    // - only one of the two input Data objects can contain contracted sequences, which are inherited by the constructed object
+   // - see also the static methods 'and', 'or', 'xor', 'andNot' and 'not', which perform the same operations without String parsing
    public Data(Data D1,Data D2,String op)
    {
       try
@@ -398,46 +323,14 @@ public class Data implements Comparable<Data>, Iterable<Integer>
          if (!op.equalsIgnoreCase("and") && !op.equalsIgnoreCase("or") && !op.equalsIgnoreCase("xor"))
             throw new Exception("Unknown bitwise operation: \"" + op + "\""); 
 
-         // getting started
-         this.size = D1.size;
-         int N = D1.numberOfBytes();
-         this.data = new ArrayList<Byte> (N);
-
-         // performing logic operation
-         if (op.equalsIgnoreCase("and"))  // and
-         {
-            for (int k = 0; k < N; k++)
-            {
-               int b = D1.data.get(k) & D2.data.get(k);
-               this.data.add((byte) b);
-            }
-         }
-         else if (op.equalsIgnoreCase("or"))  // or
-         {
-            for (int k = 0; k < N; k++)
-            {
-               int b = D1.data.get(k) | D2.data.get(k);
-               this.data.add((byte) b);
-            }
-         }
-         else // xor
-         {
-            for (int k = 0; k < N; k++)
-            {
-               int b = D1.data.get(k) ^ D2.data.get(k);
-               if (k == N - 1)
-               {
-                  int exb = 8 - this.size%8;
-                  if (exb != 8)  b = Data.mask_bits(b,exb);
-               }
-               this.data.add((byte) b);
-            }
-         }
-
-         // taking care of possible contracted sequences
-         this.contracted = null;
-         if (D1.containsContractedSequences())  this.contracted = new HashMap<Integer,Data> (D1.contracted);
-         if (D2.containsContractedSequences())  this.contracted = new HashMap<Integer,Data> (D2.contracted);
+         // performing logic operation (word by word)
+         char code = '^';
+         if (op.equalsIgnoreCase("and"))  code = '&';
+         else if (op.equalsIgnoreCase("or"))  code = '|';
+         Data result = Data.bitwise(D1,D2,code);
+         this.size = result.size;
+         this.words = result.words;
+         this.contracted = result.contracted;
       }
       catch (Exception e)
       {
@@ -457,13 +350,11 @@ public class Data implements Comparable<Data>, Iterable<Integer>
          if (bytes.length == 0) throw new Exception("Array of bytes is empty");
          if (8*bytes.length < n) throw new Exception("Not enough bytes in the array to cover " + n + " bits");
 
-         int N = 1 + (n - 1)/8;
-         this.data = new ArrayList<Byte> (N);
-         for (int i = 0; i < N - 1; i++)  this.data.add(bytes[i]);
-         byte b = bytes[N-1];
-         int exb = 8 - n%8; 
-         if (exb != 8)  b = (byte) Data.mask_bits((int) b,exb);
-         this.data.add(b);
+         int nbytes = 1 + (n - 1)/8;
+         int N = Data.numberOfWords(n);
+         this.words = new long [N];
+         for (int i = 0; i < nbytes; i++)  this.words[i >>> 3] |= (bytes[i] & 255L) << (56 - 8*(i & 7));
+         this.words[N-1] = Data.mask_bits(this.words[N-1],n);
          this.size = n;
          this.contracted = null;
       }
@@ -474,12 +365,21 @@ public class Data implements Comparable<Data>, Iterable<Integer>
       }
    }
 
+   // Data constructor: it generates a new Data object from an array of words (no copy is performed)
+   // - protected constructor, it doesnt verify the consistency of the arguments
+   protected Data(int n,long[] words)
+   {
+      this.size = n;
+      this.words = words;
+      this.contracted = null;
+   }
+
    /* basic methods */
 
    // Gives the number of bytes forming the Data object
    public int numberOfBytes()
    {
-      return this.data.size();
+      return 1 + (this.size - 1)/8;
    }
 
    // Gives the number of bits forming the Data object
@@ -512,72 +412,71 @@ public class Data implements Comparable<Data>, Iterable<Integer>
    }
 
    // Gives the actual length of the Data object (it also counts the bits in contracted sequences)
+   // - the length is read from the interval table of the contracted sequences
    public int length()
    {  
-      int l = this.size;
-
-      // are there any contracted bit sequences?
-      if (this.containsContractedSequences())
-      {
-         for (Integer f : this.contracted.keySet())
-         {
-            Data C = this.contracted.get(f);
-            l = l - 1 + C.length();
-         }
-      }
-
-      // normally we counted all bits
-      return l;
+      if (!this.containsContractedSequences())  return this.size;
+      this.intervalTable();
+      return this.cstart[this.cbits.length];
    }
 
-   // Gives the specified bit 
-   // - private method, it doesnt verify if the bit and byte indices are correct
-   private int getBit(int i,int j)
+   // Gives the specified bit
+   // - protected method, it doesnt verify if the bit index is correct
+   protected int getBit(int k)
    {
-      byte b = (byte) this.data.get(i);
-      return (b >> (7 - j)) & 1;
+      k = k + this.offset;
+      return (int) (this.words[k >>> 6] >>> (63 - (k & 63))) & 1;
    }
 
-   // Gives the specified bit
+   // Gives the 64 bits starting at the specified bit, packed in one word
+   // - bits beyond the end of the storage are set to 0 (bits beyond the end of a view may not be)
    // - private method, it doesnt verify if the bit index is correct
-   private int getBit(int k)
+   private long bitsAt(int k)
    {
-      int i = k/8;
-      int j = k%8;
-      return this.getBit(i,j);
+      k = k + this.offset;
+      int i = k >>> 6;
+      int s = k & 63;
+      long w = this.words[i] << s;
+      if (s != 0 && i + 1 < this.words.length)  w |= this.words[i+1] >>> (64 - s);
+      return w;
    }
 
-   // Flips the specified bit
-   // - private method, it doesnt verify if the bit and byte indices are correct
-   private void flipBit(int i,int j)
+   // Gives the i-th 64-bit word of the bit sequence (the bits beyond the end of the sequence are set to 0)
+   // - protected method, it doesnt verify if the word index is correct
+   protected long word(int i)
    {
-      byte x = (byte) (1 << (7 - j));
-      byte b = (byte) this.data.get(i);
-      this.data.set(i,(byte)(b^x));
+      if (!this.view)  return this.words[i];
+      long w = this.bitsAt(64*i);
+      if (i == (this.size - 1) >>> 6)  w = Data.mask_bits(w,this.size);
+      return w;
    }
 
    // Flips the specified bit
-   // - private method, it doesnt verify if the bit index is correct
-   private void flipBit(int k)
+   // - protected method, it doesnt verify if the bit index is correct
+   // - it is never invoked on views (the storage is shared)
+   // - the cached fingerprint (if any) is updated in O(1), rather than recomputed
+   protected void flipBit(int k)
    {
-      this.flipBit(k/8,k%8);
+      this.words[k >>> 6] ^= Long.MIN_VALUE >>> k;
+      this.hashed = false;
+      if (this.fingerprinted)  this.fingerprint = this.fingerprint ^ this.flipKey(k);
    }
 
    // Gives the number of bits equal to 0
    // - contracted sequences not counted
    public int numberOfZeros()
    {
-      int nZeros = 0;
-      for (int k = 0; k < this.numberOfBits(); k++)  if (this.getBit(k) == 0)  nZeros++;
-      return nZeros;
+      return this.size - this.numberOfOnes();
    }
 
    // Gives the number of bits equal to 1
    // - contracted sequences not counted
+   // - the tail of the last word is always 0, so whole words can be counted
    public int numberOfOnes()
    {
       int nOnes = 0;
-      for (int k = 0; k < this.numberOfBits(); k++)  if (this.getBit(k) == 1)  nOnes++;
+      int N = Data.numberOfWords(this.size);
+      for (int i = 0; i < N; i++)  nOnes = nOnes + Long.bitCount(this.word(i));
       return nOnes;
    }
 
@@ -597,13 +496,8 @@ public class Data implements Comparable<Data>, Iterable<Integer>
    // - contracted bit sequences are here ignored
    public byte[] toByteArray()
    {
-      byte[] byteArray = new byte [this.data.size()];
-      int k = 0;
-      for (byte b : this.data)
-      {
-         byteArray[k] = b;
-         k++;
-      }
+      byte[] byteArray = new byte [this.numberOfBytes()];
+      for (int i = 0; i < byteArray.length; i++)  byteArray[i] = (byte) (this.word(i >>> 3) >>> (56 - 8*(i & 7)));
       return byteArray;
    }
 
@@ -612,7 +506,7 @@ public class Data implements Comparable<Data>, Iterable<Integer>
    // Contracts the Data object by collapsing a sequence of contiguous bits into one
    // - when the new bit value is 0, then it corresponds to the original contracted sequence
    // - when the new bit value is 1, then it corresponds to the flipped version of the original sequence
-   // This is the only way to mutate a Data object; it mutates its inner structure however, not its content
+   // This is the only way to mutate a Data object (see MutableData for in-place bit flips); it mutates its inner structure however, not its content
    // The original sequence can be obtained via the method 'uncontract'
    public void contract(int first,int last)
    {
@@ -647,14 +541,16 @@ public class Data implements Comparable<Data>, Iterable<Integer>
 
       // we are done
       this.size = C.size;
-      this.data = C.data;
+      this.words = C.words;
+      this.offset = 0;
+      this.view = false;
       this.contracted = C.contracted;
    }
 
    // Uncontracts the Data object by reassembling the previously collapsed bit sequences
    // - when the bit to be expanded is 0, the original sequence is reintroduced
    // - when the bit to be expanded is 1, the flipped version of the original sequence is reintroduced
-   // This is the only way to mutate a Data object; it mutates its inner structure however, not its content
+   // This is the only way to mutate a Data object (see MutableData for in-place bit flips); it mutates its inner structure however, not its content
    // The contracted version in input needs to have been created by (possibly several) call(s) to the 'contract' method
    public void uncontract()
    {
@@ -669,31 +565,71 @@ public class Data implements Comparable<Data>, Iterable<Integer>
          System.exit(1);
       }
 
-      // starting from the current contracted sequence
-      Data U = new Data(this);
-
-      // uncontracting
-      while (U.contracted != null)
-      {
-         ArrayList<Integer> current = new ArrayList<Integer> (U.contracted.keySet());
-         int bit = current.get(0);
-         Data sequence = U.contracted.get(bit);
-         if (sequence.containsContractedSequences())  sequence.uncontract();
-         if (U.getBit(bit) == 1)  sequence = new Data(sequence,true);
-         Data newU = null;
-         if (bit > 0)
-            newU = new Data(new Data(U,0,bit),sequence);
-         else
-            newU = sequence;
-         if (bit < U.numberOfBits() - 1)
-            newU = new Data(newU,new Data(U,bit+1,U.numberOfBits()));
-         U = newU;
-      }
+      // uncontracting in one single pass (nested contracted sequences included)
+      int n = this.length();
+      long[] w = new long [Data.numberOfWords(n)];
+      this.expandInto(w,0,false);
 
       // we are done
-      this.size = U.size;
-      this.data = U.data;
-      this.contracted = U.contracted;
+      this.size = n;
+      this.words = w;
+      this.offset = 0;
+      this.view = false;
+      this.contracted = null;
+   }
+
+   // Builds the interval table of the contracted sequences, if not already done (private method)
+   // - cbits contains the indices of the bits representing contracted sequences, in increasing order
+   // - cstart contains, for each of them, the position of the first bit of the sequence once uncontracted;
+   //   its last entry is the length of the uncontracted bit sequence
+   // - the table is rebuilt every time the HashMap of contracted sequences is replaced
+   private void intervalTable()
+   {
+      if (this.cstart != null && this.ctable == this.contracted)  return;
+      int m = 0;
+      if (this.contracted != null)  m = this.contracted.size();
+      int[] bits = new int [m];
+      int j = 0;
+      if (m > 0)  for (Integer f : this.contracted.keySet())  bits[j++] = f;
+      Arrays.sort(bits);
+      int[] start = new int [m + 1];
+      int pos = 0;
+      int from = 0;
+      for (j = 0; j < m; j++)
+      {
+         pos = pos + bits[j] - from;
+         start[j] = pos;
+         pos = pos + this.contracted.get(bits[j]).length();
+         from = bits[j] + 1;
+      }
+      start[m] = pos + this.size - from;
+      this.cbits = bits;
+      this.cstart = start;
+      this.ctable = this.contracted;
+   }
+
+   // Writes the uncontracted bit sequence in the array dest, from the bit of index 'to' (private method)
+   // - the bits in dest are supposed to be 0; they are flipped when flip is true
+   // - nested contracted sequences are expanded recursively, directly in dest
+   private void expandInto(long[] dest,int to,boolean flip)
+   {
+      this.intervalTable();
+      int from = 0;
+      for (int j = 0; j <= this.cbits.length; j++)
+      {
+         int bit = this.size;
+         if (j < this.cbits.length)  bit = this.cbits[j];
+         Data.copyBits(this,from,dest,to,bit - from);
+         if (flip)  Data.flipBits(dest,to,bit - from);
+         to = to + bit - from;
+         if (j < this.cbits.length)
+         {
+            Data C = this.contracted.get(bit);
+            C.expandInto(dest,to,flip ^ (this.getBit(bit) == 1));
+            to = to + C.length();
+         }
+         from = bit + 1;
+      }
    }
 
    /* bitIterator 
@@ -798,6 +734,259 @@ public class Data implements Comparable<Data>, Iterable<Integer>
       }
    }
 
+   /* setBitIterator
+    *
+    * it allows for iterating on the indices of the bits equal to 1 (in increasing order):
+    * - the indices are given as primitive ints (no boxing)
+    * - the words equal to 0 are skipped, so that the iteration costs O(number of ones + number of words)
+    *
+    * It does not allow for iterating on contracted bit sequences
+    */
+
+   // Gives the index of the first bit equal to 1 which is found at, or after, the specified index
+   // - it gives -1 when there are no bits equal to 1 from the specified index on
+   public int nextSetBit(int from)
+   {
+      try
+      {
+         if (from < 0) throw new Exception("Bit index is out of range");
+      }
+      catch (Exception e)
+      {
+         e.printStackTrace();
+         System.exit(1);
+      }
+
+      if (from >= this.size)  return -1;
+      int N = Data.numberOfWords(this.size);
+      int i = from >>> 6;
+      long w = this.word(i) & (-1L >>> (from & 63));
+      while (w == 0L)
+      {
+         i++;
+         if (i == N)  return -1;
+         w = this.word(i);
+      }
+      return 64*i + Long.numberOfLeadingZeros(w);
+   }
+
+   // Performs the given action on the index of every bit equal to 1 (in increasing order)
+   public void forEachSetBit(IntConsumer action)
+   {
+      try
+      {
+         if (action == null) throw new Exception("The IntConsumer object is null");
+      }
+      catch (Exception e)
+      {
+         e.printStackTrace();
+         System.exit(1);
+      }
+
+      int N = Data.numberOfWords(this.size);
+      for (int i = 0; i < N; i++)
+      {
+         long w = this.word(i);
+         while (w != 0L)
+         {
+            int k = Long.numberOfLeadingZeros(w);
+            action.accept(64*i + k);
+            w = w ^ (Long.MIN_VALUE >>> k);
+         }
+      }
+   }
+
+   // Gives a setBitIterator on the indices of the bits equal to 1
+   public setBitIterator setBits()
+   {
+      return new setBitIterator(this);
+   }
+
+   // class setBitIterator
+   public class setBitIterator implements PrimitiveIterator.OfInt
+   {
+      // setBitIterator attributes
+      private Data data;  // reference to Data object
+      private int wordIndex;  // index of the current word
+      private long w;  // bits of the current word that were not given yet
+      private int N;  // number of words
+
+      // constructor
+      public setBitIterator(Data data)
+      {
+         super();
+         this.data = data;
+         this.N = Data.numberOfWords(data.size);
+         this.wordIndex = 0;
+         this.w = this.N > 0 ? data.word(0) : 0L;
+      }
+
+      @Override
+      // hasNext
+      public boolean hasNext()
+      {
+         while (this.w == 0L)
+         {
+            if (this.wordIndex + 1 >= this.N)  return false;
+            this.wordIndex++;
+            this.w = this.data.word(this.wordIndex);
+         }
+         return true;
+      }
+
+      @Override
+      // nextInt
+      public int nextInt() throws NoSuchElementException
+      {
+         if (!this.hasNext()) throw new NoSuchElementException();
+         int k = Long.numberOfLeadingZeros(this.w);
+         this.w = this.w ^ (Long.MIN_VALUE >>> k);
+         return 64*this.wordIndex + k;
+      }
+
+      // reset
+      public void reset()
+      {
+         this.wordIndex = 0;
+         this.w = this.N > 0 ? this.data.word(0) : 0L;
+      }
+   }
+
+   /* combinationIterator
+    *
+    * it allows for iterating on all Data objects in the Hamming circle centered on a Data object:
+    * - the subsets of h bit indices are enumerated in colexicographic order (combinatorial number system)
+    * - every step flips O(1) bits in the average, on one single MutableData object (which is returned by next)
+    * - the iteration can be started from (or moved to) any rank, so that the circle can be explored in chunks
+    *
+    * It does not allow for iterating on contracted bit sequences
+    */
+
+   // Gives a combinationIterator on the Data objects in the Hamming circle of radius h centered on this Data object
+   public combinationIterator combinations(int h)
+   {
+      return new combinationIterator(this,h);
+   }
+
+   // class combinationIterator
+   public class combinationIterator implements Iterator<Data>
+   {
+      // combinationIterator attributes
+      private MutableData current;  // center with the bits of the current combination flipped
+      private int n;  // number of bits
+      private int[] c;  // current combination (increasing bit indices; null when no bits are flipped)
+      private int h;  // Hamming radius (number of indices in every combination)
+      private long rank;  // rank of the next combination
+      private long total;  // number of combinations (saturated at Long.MAX_VALUE)
+
+      // constructor
+      public combinationIterator(Data center,int h)
+      {
+         super();
+         try
+         {
+            if (center == null) throw new Exception("combinationIterator: the center Data object is null");
+            if (h < 0) throw new Exception("combinationIterator: specified Hamming radius is negative");
+            if (h > center.numberOfBits()) throw new Exception("combinationIterator: specified Hamming radius is larger than the number of bits");
+         }
+         catch (Exception e)
+         {
+            e.printStackTrace();
+            System.exit(1);
+         }
+
+         this.current = new MutableData(center);
+         this.n = center.numberOfBits();
+         this.h = h;
+         this.c = null;
+         this.rank = 0L;
+         this.total = Data.binomial(h,this.n);
+      }
+
+      // Gives the number of Data objects in the Hamming circle (saturated at Long.MAX_VALUE)
+      public long size()
+      {
+         return this.total;
+      }
+
+      // Gives the rank of the last Data object given by next (-1 if next has not been invoked yet)
+      public long getCurrentRank()
+      {
+         if (this.c == null)  return -1L;
+         return this.rank - 1L;
+      }
+
+      // Gives the bit indices flipped in the last Data object given by next (null if next has not been invoked yet)
+      public int[] getCurrentIndices()
+      {
+         if (this.c == null)  return null;
+         return Arrays.copyOf(this.c,this.h);
+      }
+
+      @Override
+      // hasNext
+      public boolean hasNext()
+      {
+         return this.rank < this.total;
+      }
+
+      @Override
+      // next
+      // - the returned object is always the same MutableData object, modified in place: freeze it to keep it
+      public Data next() throws NoSuchElementException
+      {
+         if (!this.hasNext()) throw new NoSuchElementException();
+         if (this.c == null)
+         {
+            // first combination (unranking)
+            this.c = Data.unrankCombination(this.rank,this.h,this.n);
+            for (int i = 0; i < this.h; i++)  this.current.flipBit(this.c[i]);
+         }
+         else
+         {
+            // next combination in colexicographic order: the first index that can be incremented is incremented,
+            // and all previous indices are reset to 0,1,...
+            int j = 0;
+            while (j < this.h - 1 && this.c[j] + 1 == this.c[j+1])  j++;
+            for (int i = 0; i < j; i++)
+            {
+               this.current.flipBit(this.c[i]);
+               this.current.flipBit(i);
+               this.c[i] = i;
+            }
+            this.current.flipBit(this.c[j]);
+            this.c[j]++;
+            this.current.flipBit(this.c[j]);
+         }
+         this.rank++;
+         return this.current;
+      }
+
+      // Moves the iterator so that the next call to next gives the Data object of given rank
+      public void skipTo(long rank)
+      {
+         try
+         {
+            if (rank < 0L || rank > this.total) throw new Exception("combinationIterator: specified rank is out of range");
+         }
+         catch (Exception e)
+         {
+            e.printStackTrace();
+            System.exit(1);
+         }
+
+         if (this.c != null)  for (int i = 0; i < this.h; i++)  this.current.flipBit(this.c[i]);
+         this.c = null;
+         this.rank = rank;
+      }
+
+      // reset
+      public void reset()
+      {
+         this.skipTo(0L);
+      }
+   }
+
    // Generates the next Data object in a given neighbourhood of 'this' with a given Hamming radius
    // -> the Hamming radius is specified by the number of elements in the input list (the only argument)
    // -> to compute the first Data object in the neighbourhood, all elements in the input list need to be null
@@ -877,7 +1066,74 @@ public class Data implements Comparable<Data>, Iterable<Integer>
    // -> 1 if they differ
    public static Data diff(Data D1,Data D2)
    {
-      return new Data(D1,D2,"xor");
+      return Data.xor(D1,D2);
+   }
+
+   // Provides the bitwise 'and' of two Data objects of the same size
+   public static Data and(Data D1,Data D2)
+   {
+      return Data.bitwise(D1,D2,'&');
+   }
+
+   // Provides the bitwise 'or' of two Data objects of the same size
+   public static Data or(Data D1,Data D2)
+   {
+      return Data.bitwise(D1,D2,'|');
+   }
+
+   // Provides the bitwise 'xor' of two Data objects of the same size
+   public static Data xor(Data D1,Data D2)
+   {
+      return Data.bitwise(D1,D2,'^');
+   }
+
+   // Provides the bitwise 'and not' of two Data objects of the same size (the bits of D1 that are not set in D2)
+   public static Data andNot(Data D1,Data D2)
+   {
+      return Data.bitwise(D1,D2,'-');
+   }
+
+   // Provides the bitwise 'not' of a Data object
+   public static Data not(Data D)
+   {
+      return new Data(D,true);
+   }
+
+   // Performs a bitwise operation on two Data objects of the same size, word by word (private method)
+   // - the operation codes are '&' (and), '|' (or), '^' (xor), and '-' (and not)
+   // - only one of the two Data objects can contain contracted bit sequences, which are then kept in the result
+   private static Data bitwise(Data D1,Data D2,char op)
+   {
+      try
+      {
+         if (D1 == null) throw new Exception("First Data object is null");
+         if (D2 == null) throw new Exception("Second Data object is null");
+         if (D1.containsContractedSequences() && D2.containsContractedSequences())
+            throw new Exception("Only one of the two input Data objects can contain contracted bit sequences");
+         if (D1.numberOfBits() != D2.numberOfBits()) throw new Exception("The two Data objects have different size (in terms of bits)");
+      }
+      catch (Exception e)
+      {
+         e.printStackTrace();
+         System.exit(1);
+      }
+
+      int N = Data.numberOfWords(D1.size);
+      long[] w = new long [N];
+      if (op == '&')
+         for (int k = 0; k < N; k++)  w[k] = D1.word(k) & D2.word(k);
+      else if (op == '|')
+         for (int k = 0; k < N; k++)  w[k] = D1.word(k) | D2.word(k);
+      else if (op == '^')
+         for (int k = 0; k < N; k++)  w[k] = D1.word(k) ^ D2.word(k);
+      else
+         for (int k = 0; k < N; k++)  w[k] = D1.word(k) & ~D2.word(k);
+
+      // taking care of possible contracted sequences
+      Data result = new Data(D1.size,w);
+      if (D1.containsContractedSequences())  result.contracted = new HashMap<Integer,Data> (D1.contracted);
+      if (D2.containsContractedSequences())  result.contracted = new HashMap<Integer,Data> (D2.contracted);
+      return result;
    }
 
    // Generates a new Data object which is a copy of the input Data object D where the number of bits
@@ -908,18 +1164,18 @@ public class Data implements Comparable<Data>, Iterable<Integer>
       if (n == cnbits)  return new Data(D.numberOfBits(),!bitValue);
 
       // removing (flipping) "cnbits-nbits" randomly-selected bits corresponding to the bitValue
-      Random R = new Random();
-      int bit = 0;
-      if (bitValue)  bit = 1;
-      Data newD = new Data(D);
-      while (n > 0)
-      {
-         int k = R.nextInt(newD.numberOfBits());
-         if (newD.getBit(k) == bit)
-         {
-            newD.flipBit(k);
-            n--;
-         }
+      // (the bits to be flipped are selected among the bits corresponding to the bitValue, word by word)
+      int N = Data.numberOfWords(D.size);
+      long[] w = new long [N];
+      for (int i = 0; i < N; i++)  w[i] = bitValue ? D.word(i) : ~D.word(i);
+      w[N-1] = Data.mask_bits(w[N-1],D.size);
+      Data.randomSubset(w,cnbits,n,Data.random);
+      for (int i = 0; i < N; i++)  w[i] = w[i] ^ D.word(i);
+      Data newD = new Data(D.size,w);
+      if (D.containsContractedSequences())
+      {
+         newD.contracted = new HashMap<Integer,Data> ();
+         for (Integer f : D.contracted.keySet())  newD.contracted.put(f,new Data(D.contracted.get(f)));
       }
       return newD;
    }
@@ -984,24 +1240,20 @@ public class Data implements Comparable<Data>, Iterable<Integer>
       int n = D.numberOfBits();
 
       // constructing the new Data object
-      Data result = null;
-      if (steps == 0 || steps == n)
-      {
-         // no changes
-         result = new Data(D);
-      }
-      else if (direction > 0)
+      if (steps == 0 || steps == n)  return new Data(D);  // no changes
+      long[] w = new long [Data.numberOfWords(n)];
+      if (direction > 0)
       {
          // shifting bits on the right side
-         result = new Data(new Data(steps,false),new Data(D,0,n-steps));
+         Data.copyBits(D,0,w,steps,n - steps);
       }
       else
       {
          // shifting bits on the left side
-         result = new Data(new Data(D,steps,n),new Data(steps,false));
+         Data.copyBits(D,steps,w,0,n - steps);
       }
 
-      return result;
+      return new Data(n,w);
    }
 
    // Generates a new Data object where the bits of a given Data object are shuffled
@@ -1024,22 +1276,13 @@ public class Data implements Comparable<Data>, Iterable<Integer>
       int nones = n - nzeros;
       if (nzeros == n || nones == n)  return new Data(D);
 
-      Random R = new Random();
+      // the ones are placed in uniformly chosen positions, directly in the words of the new object
       Data result = null;
       do
       {
-         Set<Integer> ones = new TreeSet<Integer> ();
-         int target = nones;
-         while (target > 0)
-         {
-            int i = R.nextInt(n);
-            if (!ones.contains(i))
-            {
-               ones.add(i);
-               target--;
-            }
-         }
-         result = new Data(n,ones);
+         long[] w = new long [Data.numberOfWords(n)];
+         Data.randomBits(w,n,null,nones,Data.random);
+         result = new Data(n,w);
       }
       while (result.equals(D));
 
@@ -1061,12 +1304,22 @@ public class Data implements Comparable<Data>, Iterable<Integer>
          System.exit(1);
       }
 
-      Data result = new Data(lD.get(0));
-      int k = 1;
-      while (k < lD.size())
+      // total number of bits
+      int n = 0;
+      for (Data D : lD)  n = n + D.size;
+
+      // copying all Data objects (and their contracted bit sequences) in one single pass
+      Data result = new Data(n,new long [Data.numberOfWords(n)]);
+      int to = 0;
+      for (Data D : lD)
       {
-         result = new Data(result,lD.get(k));
-         k++;
+         Data.copyBits(D,0,result.words,to,D.size);
+         if (D.containsContractedSequences())
+         {
+            if (result.contracted == null)  result.contracted = new HashMap<Integer,Data> ();
+            for (Integer f : D.contracted.keySet())  result.contracted.put(to + f,new Data(D.contracted.get(f)));
+         }
+         to = to + D.size;
       }
       return result;
    }
@@ -1111,14 +1364,14 @@ public class Data implements Comparable<Data>, Iterable<Integer>
       pivot.add(m);
       Collections.sort(pivot);
 
-      // extracting the pieces, and concatenating in one object
-      ArrayList<Data> pieces = new ArrayList<>();
+      // copying the pieces in one object
+      long[] w = new long [Data.numberOfWords(m)];
       for (int i = 0; i < n; i++)
       {
-         Data D = new Data(lD.get(i),pivot.get(i),pivot.get(i+1));
-         pieces.add(D);
+         int first = pivot.get(i);
+         Data.copyBits(lD.get(i),first,w,first,pivot.get(i+1) - first);
       }
-      return Data.concat(pieces);
+      return new Data(m,w);
    }
 
    // Generates a random Data object obtained by flipping some bits of the Data object D to fit with those of an Attractor
@@ -1143,24 +1396,7 @@ public class Data implements Comparable<Data>, Iterable<Integer>
          System.exit(1);
       }
 
-      // constructing the attracted Data object
-      Data result = null;
-      if (speed == 0.0)
-      {
-         result = new Data(D);  // no changes
-      }
-      else if (speed == 1.0)
-      {
-         result = new Data(Attractor);  // the result is the Attractor
-      }
-      else
-      {
-         Data Diff = Data.diff(D,Attractor);
-         Data cDiff = Data.control(Diff,true,speed);
-         result = Data.diff(D,cDiff);
-      }
-
-      return result;
+      return Data.attract(D,Attractor,false,speed);
    }
 
    // Generates a random Data object obtained by flipping some bits of the Data object D to be the opposite of those of a Repellent
@@ -1170,7 +1406,13 @@ public class Data implements Comparable<Data>, Iterable<Integer>
    {
       try
       {
+         if (D == null) throw new Exception("First input Data object D is null");
          if (Repellent == null) throw new Exception("Second input Data object is null");
+         if (D.containsContractedSequences() || Repellent.containsContractedSequences())
+            throw new Exception("This implementation of 'repel' cannot handle Data objects with contracted bit sequences");
+         if (D.numberOfBits() != Repellent.numberOfBits()) throw new Exception("The two specified input Data objects differ in bit length");
+         if (speed < 0.0 || speed > 1.0)
+            throw new Exception("Specified speed argument is supposed to be contained in the interval [0,1]");
       }
       catch (Exception e)
       {
@@ -1178,7 +1420,33 @@ public class Data implements Comparable<Data>, Iterable<Integer>
          System.exit(1);
       }
 
-      return Data.attract(D,new Data(Repellent,true),speed);
+      return Data.attract(D,Repellent,true,speed);
+   }
+
+   // Generates a random Data object obtained by flipping some bits of D to fit with those of A, or with
+   // those of the opposite of A when 'opposite' is true (private method)
+   // - as in Data.control(Data.diff(D,A),true,speed), the flipped bits are a random selection of
+   //   (1 - speed)*m bits among the m bits where D differs from A (or from its opposite)
+   // - the differing bits are selected word by word, and the result is built in one single pass
+   private static Data attract(Data D,Data A,boolean opposite,double speed)
+   {
+      // no changes, or the result is the attractor
+      if (speed == 0.0)  return new Data(D);
+      if (speed == 1.0)  return new Data(A,opposite);
+
+      // selecting the bits to be flipped among the differing ones
+      int N = Data.numberOfWords(D.size);
+      long[] w = new long [N];
+      int m = 0;
+      for (int i = 0; i < N; i++)
+      {
+         w[i] = D.word(i) ^ (opposite ? ~A.word(i) : A.word(i));
+         if (i == N - 1)  w[i] = Data.mask_bits(w[i],D.size);
+         m = m + Long.bitCount(w[i]);
+      }
+      Data.randomSubset(w,m,(int) ((1.0 - speed)*m),Data.random);
+      for (int i = 0; i < N; i++)  w[i] = w[i] ^ D.word(i);
+      return new Data(D.size,w);
    }
 
    /* Hamming-distance based methods */
@@ -1198,16 +1466,44 @@ public class Data implements Comparable<Data>, Iterable<Integer>
          System.exit(1);
       }
 
-      // uncontracting the Data objects (if necessary)
-      Data D1 = new Data(this);
-      Data D2 = new Data(D);
-      if (D1.containsContractedSequences())  D1.uncontract();
-      if (D2.containsContractedSequences())  D2.uncontract();
+      // computing Hamming distance (no early exit)
+      return hammingDistance(this,D,Integer.MAX_VALUE);
+   }
+
+   // Verifies whether the Hamming distance between this Data object and D is at most 'limit'
+   // - the computation stops as soon as the limit is exceeded
+   public boolean hammingDistanceAtMost(Data D,int limit)
+   {
+      try
+      {
+         if (D == null) throw new Exception("Impossible to compute Hamming distance: Data object D is null");
+         if (limit < 0) throw new Exception("Impossible to compute Hamming distance: specified limit is negative");
+         if (this.length() != D.length()) throw new Exception("Impossible to compute Hamming distance: Data objects differ in length");
+      }
+      catch (Exception e)
+      {
+         e.printStackTrace();
+         System.exit(1);
+      }
+
+      return hammingDistance(this,D,limit) <= limit;
+   }
+
+   // Hamming distance between D1 and D2, computed word by word (XOR + popcount)
+   // - the computation stops as soon as 'limit' is exceeded (the returned value is then > limit)
+   // - only contracted Data objects are copied (and uncontracted)
+   private static int hammingDistance(Data D1,Data D2,int limit)
+   {
+      D1 = Data.uncontracted(D1);
+      D2 = Data.uncontracted(D2);
 
-      // computing Hamming distance
       int h = 0;
-      int l = D1.numberOfBits();
-      for (int i = 0; i < l; i++)  if (D1.getBit(i) != D2.getBit(i))  h++;
+      int N = Data.numberOfWords(D1.size);
+      for (int i = 0; i < N; i++)
+      {
+         h = h + Long.bitCount(D1.word(i) ^ D2.word(i));
+         if (h > limit)  return h;
+      }
       return h;
    }
 
@@ -1223,133 +1519,396 @@ public class Data implements Comparable<Data>, Iterable<Integer>
       {
          e.printStackTrace();
          System.exit(1);
-      }  
-      
-      return this.hammingDistanceTo(D) <= h;
+      }
+
+      return this.hammingDistanceAtMost(D,h);
    }
 
    // Gives the number of Data object in the circle centered on 'this' and having Hamming radius h
    // - if this Data object is contracted, the uncontracted version is taken into consideration
+   // - the result saturates at Integer.MAX_VALUE (see 'binomial' and 'exactBinomial' for larger counts)
    public int numberOfDataOnCircle(int h)
    {
       try
       {
-         String msg = "Impossible to count the number of Data objects on Hamming circle: specified Hamming distance ";
-         if (h < 0) throw new Exception(msg + "is negative");
-         if (h > this.length()) throw new Exception(msg + "is strictly larger than the Data object length");
+         String msg = "Impossible to count the number of Data objects on Hamming circle: specified Hamming distance ";
+         if (h < 0) throw new Exception(msg + "is negative");
+         if (h > this.length()) throw new Exception(msg + "is strictly larger than the Data object length");
+      }
+      catch (Exception e)
+      {
+         e.printStackTrace();
+         System.exit(1);
+      }
+
+      // computing the binomial
+      return (int) Math.min(Data.binomial(h,this.length()),Integer.MAX_VALUE);
+   }
+
+   // Verifies whether the number of Data objects in the circle centered on 'this' and having Hamming radius h
+   // is strictly smaller than N
+   // - the count is not computed entirely: the computation stops as soon as N is attained
+   public boolean isCircleSmallerThan(int h,long N)
+   {
+      try
+      {
+         String msg = "Impossible to verify the size of the Hamming circle: specified Hamming distance ";
+         if (h < 0) throw new Exception(msg + "is negative");
+         if (h > this.length()) throw new Exception(msg + "is strictly larger than the Data object length");
+      }
+      catch (Exception e)
+      {
+         e.printStackTrace();
+         System.exit(1);
+      }
+
+      return Data.binomial(h,this.length(),N) < N;
+   }
+
+   // Gives the number of Data objects in the neighbourhood of 'this' and Hamming distance between l and u
+   // - if this Data object is contracted, the uncontracted version is taken into consideration
+   // - the result saturates at Integer.MAX_VALUE
+   public int numberOfDataInNeighbourhood(int l,int u)
+   {
+      try
+      {
+         int n = this.numberOfBits();
+         String msg = "Impossible to count the number of Data objects on Hamming neighbourhood: ";
+         if (l < 0) throw new Exception(msg + "specified lower bound is nonpositive");
+         if (l > n) throw new Exception(msg + "specified lower bound is larger than total number of bits");
+         if (u < 0) throw new Exception(msg + "specified upper bound is nonpositive");
+         if (u > n) throw new Exception(msg + "specified upper bound is larger than total number of bits");
+         if (l > u) throw new Exception(msg + "specified lower bound is strictly larger than upper bound");
+      }
+      catch (Exception e)
+      {  
+         e.printStackTrace();
+         System.exit(1);
+      }
+
+      // summing up the number of Data objects in every Hamming circle
+      long n = 0;
+      for (int i = l; i <= u && n < Integer.MAX_VALUE; i++)  n = n + this.numberOfDataOnCircle(i);
+      return (int) Math.min(n,Integer.MAX_VALUE);
+   }
+
+   // Gives the number of Data objects in the neighbourhood of 'this' and Hamming distance between 0 and u
+   // - if this Data object is contracted, the uncontracted version is taken into consideration
+   public int numberOfDataInNeighbourhood(int h)
+   {
+      return this.numberOfDataInNeighbourhood(0,h);
+   }
+
+   // Selects a random Data object in the neighbourhood with Hamming distance [l,u] from this Data object
+   // - when bits representing contracted sequences are selected, the number of original bits in the
+   //   contracted sequences are counted
+   // - it takes in entry a Random object to perform random choices
+   public Data randomSelectInNeighbourhood(int l,int u,Random R)
+   {
+      String msg = "Neighbourhood of Data object: ";
+      try
+      {
+         if (l <= 0) throw new Exception(msg + "lower bound on Hamming distance is nonpositive");
+         if (u < 0)  throw new Exception(msg + "upper bound on Hamming distance is negative");
+         if (l > u)  throw new Exception(msg + "upper bound is greater than lower bound on Hamming distance");
+         if (this.length() < l) throw new Exception(msg + "lower bound is greater than the Data object length");
+         if (this.length() < u) throw new Exception(msg + "upper bound is greater than the Data object length");
+         if (R == null) throw new Exception(msg + "input Random object is null");
+      }
+      catch (Exception e)
+      {  
+         e.printStackTrace();
+         System.exit(1);
+      }
+
+      // the selected bits are flipped word by word (the fingerprint, if any, is updated bit by bit)
+      int N = Data.numberOfWords(this.size);
+      long[] mask = new long [N];
+      this.selectBitsInNeighbourhood(l,u,R,mask);
+      long fingerprint = this.fingerprint;
+      for (int i = 0; i < N; i++)
+      {
+         if (this.fingerprinted)
+         {
+            for (long w = mask[i]; w != 0L; w = w & (w - 1L))  fingerprint = fingerprint ^ this.flipKey(64*i + 63 - Long.numberOfTrailingZeros(w));
+         }
+         mask[i] = mask[i] ^ this.word(i);
+      }
+      Data random = new Data(this.size,mask);
+      if (this.containsContractedSequences())
+      {
+         random.contracted = new HashMap<Integer,Data> ();
+         for (Integer f : this.contracted.keySet())  random.contracted.put(f,new Data(this.contracted.get(f)));
+      }
+      random.fingerprint = fingerprint;
+      random.fingerprinted = this.fingerprinted;
+      return random;
+   }
+
+   // Selects a random Data object in the neighbourhood with Hamming distance [l,u] from this Data object
+   // - when bits representing contracted sequences are selected, the number of original bits in the
+   //   contracted sequences are counted
+   public Data randomSelectInNeighbourhood(int l,int u)
+   {
+      return this.randomSelectInNeighbourhood(l,u,Data.random);
+   }
+
+   // Selects a random Data object in the neighbourhood with Hamming distance h from this Data object
+   // - it takes in entry a Random object to perform random choices
+   public Data randomSelectInNeighbourhood(int h,Random R)
+   {
+      return this.randomSelectInNeighbourhood(1,h,R);
+   }
+
+   // Selects a random Data object in the neighbourhood with Hamming distance h from this Data object
+   // - when bits representing contracted sequences are selected, the number of original bits in the
+   //   contracted sequences are counted
+   public Data randomSelectInNeighbourhood(int h)
+   {
+      return this.randomSelectInNeighbourhood(1,h,Data.random);
+   }
+
+   // Generates a random Data object by flipping every bit of this Data object with probability p
+   // - the bits representing contracted sequences are flipped with the same probability as the other bits
+   // - it takes in entry a Random object to perform random choices
+   public Data bernoulliMutation(double p,Random R)
+   {
+      try
+      {
+         if (p < 0.0 || p > 1.0) throw new Exception("Specified probability p should be contained in the interval [0,1]");
+         if (R == null) throw new Exception("Input Random object is null");
+      }
+      catch (Exception e)
+      {
+         e.printStackTrace();
+         System.exit(1);
+      }
+
+      // the selected bits are flipped word by word
+      int N = Data.numberOfWords(this.size);
+      long[] mask = new long [N];
+      Data.bernoulliBits(mask,this.size,p,R);
+      for (int i = 0; i < N; i++)  mask[i] = mask[i] ^ this.word(i);
+      Data mutated = new Data(this.size,mask);
+      if (this.containsContractedSequences())
+      {
+         mutated.contracted = new HashMap<Integer,Data> ();
+         for (Integer f : this.contracted.keySet())  mutated.contracted.put(f,new Data(this.contracted.get(f)));
+      }
+      return mutated;
+   }
+
+   // Generates a random Data object by flipping every bit of this Data object with probability p
+   // - the bits representing contracted sequences are flipped with the same probability as the other bits
+   public Data bernoulliMutation(double p)
+   {
+      return this.bernoulliMutation(p,Data.random);
+   }
+
+   // Selects the bits to flip for moving to a random Data object with Hamming distance [l,u] from this object
+   // - the selected bits are set in the array 'mask', which is supposed to contain only zeros in entry
+   // - one bit representing a contracted sequence may be selected (its weight is the length of the sequence);
+   //   the other bits are selected among the bits not representing contracted sequences
+   // - Floyd's algorithm selects distinct bits in time proportional to their number; when more than half
+   //   of the bits need to be flipped, the bits that are not going to be flipped are selected instead
+   protected void selectBitsInNeighbourhood(int l,int u,Random R,long[] mask)
+   {
+      int n = this.numberOfBits();
+      int actual = l;
+      if (u > l)  actual = l + R.nextInt(u - l + 1);  // no random draw when the distance is fixed
+
+      // selecting the contracted sequence (among the ones shorter than u, if any)
+      int[] skip = null;  // sorted indices of the bits representing contracted sequences (from the interval table)
+      int select = -1;
+      if (this.containsContractedSequences())
+      {
+         this.intervalTable();
+         skip = this.cbits;
+         int nshort = 0;
+         int nlong = 0;
+         for (int f : skip)
+         {
+            if (this.contracted.get(f).length() < u)
+            {
+               nshort++;
+               if (R.nextInt(nshort) == 0)  select = f;
+            }
+            else if (nshort == 0)
+            {
+               nlong++;
+               if (R.nextInt(nlong) == 0)  select = f;
+            }
+         }
+         int weight = this.contracted.get(select).length();
+         if (n - weight >= actual)
+            actual = actual - weight;
+         else
+            select = -1;
+      }
+
+      // selecting the other bits
+      if (actual > 0)
+      {
+         int m = n;
+         if (skip != null)  m = m - skip.length;
+         if (n - 1 < actual)  actual = n - 1;
+         if (m < actual)  actual = m;
+         Data.randomBits(mask,n,skip,actual,R);
+      }
+      if (select != -1)  mask[select >>> 6] |= Long.MIN_VALUE >>> select;
+   }
+
+   // Sets k distinct bits, uniformly chosen among the first n bits not listed in the sorted array skip,
+   // in the array of words w (private method)
+   // - the selected bits are supposed to be 0 in entry (w is used as the set of already selected bits)
+   // - Floyd's algorithm selects distinct bits in time proportional to their number; when more than half
+   //   of the bits need to be set, the bits that are not going to be set are selected instead
+   // - when about half of the bits need to be set (and skip is null), random words are generated, and
+   //   then the number of bits equal to 1 is adjusted by selecting random bits to be set or reset; this is
+   //   done when the expected number of random choices (one per word, plus about |2k - n| + sqrt(n) for the
+   //   adjustment) is smaller than the one of Floyd's algorithm (this includes the short Data objects, such
+   //   as the ones encoding the parameters of the meta-heuristics, which fit in one or two words)
+   private static void randomBits(long[] w,int n,int[] skip,int k,Random R)
+   {
+      int N = Data.numberOfWords(n);
+      int m = n;
+      if (skip != null)  m = m - skip.length;
+
+      // random words
+      if (skip == null && N + Math.abs(2*k - n) + (int) Math.sqrt(n) < Math.min(k,n - k))
+      {
+         int c = 0;
+         for (int i = 0; i < N; i++)
+         {
+            w[i] = R.nextLong();
+            if (i == N - 1)  w[i] = Data.mask_bits(w[i],n);
+            c = c + Long.bitCount(w[i]);
+         }
+         while (c != k)
+         {
+            if (N == 1)
+            {
+               // one word: the bit to flip is directly chosen among the bits equal to 1 (or to 0)
+               long candidates = c > k ? w[0] : Data.mask_bits(~w[0],n);
+               for (int r = R.nextInt(c > k ? c : n - c); r > 0; r--)  candidates = candidates & (candidates - 1L);
+               w[0] ^= candidates & -candidates;
+               c = c > k ? c - 1 : c + 1;
+               continue;
+            }
+            int t = R.nextInt(n);
+            boolean set = (w[t >>> 6] & (Long.MIN_VALUE >>> t)) != 0L;
+            if (set == c > k)
+            {
+               w[t >>> 6] ^= Long.MIN_VALUE >>> t;
+               c = set ? c - 1 : c + 1;
+            }
+         }
+         return;
+      }
+
+      // Floyd's algorithm
+      boolean complement = 2*k > m;
+      if (complement)  k = m - k;
+      for (int j = m - k; j < m; j++)
+      {
+         int t = Data.freeIndex(R.nextInt(j + 1),skip);
+         if ((w[t >>> 6] & (Long.MIN_VALUE >>> t)) != 0L)  t = Data.freeIndex(j,skip);
+         w[t >>> 6] |= Long.MIN_VALUE >>> t;
       }
-      catch (Exception e)
+      if (complement)
       {
-         e.printStackTrace();
-         System.exit(1);
+         for (int i = 0; i < N; i++)  w[i] = ~w[i];
+         w[N-1] = Data.mask_bits(w[N-1],n);
+         if (skip != null)  for (int f : skip)  w[f >>> 6] &= ~(Long.MIN_VALUE >>> f);
       }
-
-      // computing the binomial
-      return Data.binomial(h,this.length());
    }
 
-   // Gives the number of Data objects in the neighbourhood of 'this' and Hamming distance between l and u
-   // - if this Data object is contracted, the uncontracted version is taken into consideration
-   public int numberOfDataInNeighbourhood(int l,int u)
+   // Sets every bit among the first n bits with probability p, in the array of words w
+   // - protected method, the bits are supposed to be 0 in entry
+   // - when p is 1/2, random words are generated; otherwise, the gaps between two consecutive selected bits
+   //   are sampled from a geometric distribution, so that the time is proportional to the number of selected
+   //   bits (when p > 1/2, the bits which are not going to be selected are sampled in this way)
+   protected static void bernoulliBits(long[] w,int n,double p,Random R)
    {
-      try
+      int N = Data.numberOfWords(n);
+      if (p == 0.5)
       {
-         int n = this.numberOfBits();
-         String msg = "Impossible to count the number of Data objects on Hamming neighbourhood: ";
-         if (l < 0) throw new Exception(msg + "specified lower bound is nonpositive");
-         if (l > n) throw new Exception(msg + "specified lower bound is larger than total number of bits");
-         if (u < 0) throw new Exception(msg + "specified upper bound is nonpositive");
-         if (u > n) throw new Exception(msg + "specified upper bound is larger than total number of bits");
-         if (l > u) throw new Exception(msg + "specified lower bound is strictly larger than upper bound");
+         for (int i = 0; i < N; i++)  w[i] = R.nextLong();
+         w[N-1] = Data.mask_bits(w[N-1],n);
+         return;
       }
-      catch (Exception e)
-      {  
-         e.printStackTrace();
-         System.exit(1);
+      boolean complement = p > 0.5;
+      double q = complement ? 1.0 - p : p;
+      if (q > 0.0)
+      {
+         double logq = Math.log1p(-q);
+         long t = -1L;
+         while (true)
+         {
+            t = t + 1L + (long) Math.floor(Math.log(1.0 - R.nextDouble())/logq);
+            if (t >= n || t < 0L)  break;
+            w[(int) (t >>> 6)] |= Long.MIN_VALUE >>> t;
+         }
+      }
+      if (complement)
+      {
+         for (int i = 0; i < N; i++)  w[i] = ~w[i];
+         w[N-1] = Data.mask_bits(w[N-1],n);
       }
-
-      // summing up the number of Data objects in every Hamming circle
-      int n = 0;
-      for (int i = l; i <= u; i++)  n = n + this.numberOfDataOnCircle(i);
-      return n;
-   }
-
-   // Gives the number of Data objects in the neighbourhood of 'this' and Hamming distance between 0 and u
-   // - if this Data object is contracted, the uncontracted version is taken into consideration
-   public int numberOfDataInNeighbourhood(int h)
-   {
-      return this.numberOfDataInNeighbourhood(0,h);
    }
 
-   // Selects a random Data object in the neighbourhood with Hamming distance [l,u] from this Data object
-   // - when bits representing contracted sequences are selected, the number of original bits in the
-   //   contracted sequences are counted
-   public Data randomSelectInNeighbourhood(int l,int u)
+   // Keeps k bits, uniformly chosen among the c bits equal to 1 in the array of words w, and sets the others to 0 (private method)
+   // - the indices of the bits equal to 1 are extracted word by word, and then a partial Fisher-Yates shuffle
+   //   selects either the bits to be kept, or the bits to be set to 0 (the smallest set of the two)
+   private static void randomSubset(long[] w,int c,int k,Random R)
    {
-      String msg = "Neighbourhood of Data object: ";
-      try
+      if (k >= c)  return;
+      if (k == 0)
       {
-         if (l <= 0) throw new Exception(msg + "lower bound on Hamming distance is nonpositive");
-         if (u < 0)  throw new Exception(msg + "upper bound on Hamming distance is negative");
-         if (l > u)  throw new Exception(msg + "upper bound is greater than lower bound on Hamming distance");
-         if (this.length() < l) throw new Exception(msg + "lower bound is greater than the Data object length");
-         if (this.length() < u) throw new Exception(msg + "upper bound is greater than the Data object length");
-      }
-      catch (Exception e)
-      {  
-         e.printStackTrace();
-         System.exit(1);
+         Arrays.fill(w,0L);
+         return;
       }
 
-      // computing the 'weight' of every bit
-      int [] weight = new int [this.numberOfBits()];
-      for (int i = 0; i < this.numberOfBits(); i++)  weight[i] = 1;
-      int select = -1;
-      if (this.containsContractedSequences())
+      // extracting the indices of the bits equal to 1
+      int[] index = new int [c];
+      int j = 0;
+      for (int i = 0; i < w.length; i++)
       {
-         ArrayList<Integer> keyList = new ArrayList<Integer> (this.contracted.keySet());
-         Collections.shuffle(keyList);
-         for (Integer i : keyList)
+         long x = w[i];
+         while (x != 0L)
          {
-            weight[i] = this.contracted.get(i).length();
-            if (select == -1 || weight[i] < u)  select = i;
+            int b = Long.numberOfLeadingZeros(x);
+            index[j++] = (i << 6) + b;
+            x = x ^ (Long.MIN_VALUE >>> b);
          }
       }
 
-      // selecting the random Data object in the neighbourhood
-      Random R = new Random();
-      Data random = new Data(this);
-      int len = random.numberOfBits();
-      boolean[] flipped = new boolean[len];
-      for (int i = 0; i < len; i++)  flipped[i] = false;
-      int actual = l + R.nextInt(u - l + 1);
-      if (this.containsContractedSequences() && this.numberOfBits() - weight[select] >= actual)
+      // partial Fisher-Yates shuffle
+      boolean keep = 2*k <= c;
+      int r = keep ? k : c - k;
+      for (j = 0; j < r; j++)
       {
-         random.flipBit(select);
-         flipped[select] = true;
-         actual = actual - weight[select];
-      }
-      if (actual > 0)
-      {
-         if (this.numberOfBits() - 1 < actual)  actual = this.numberOfBits() - 1;
-         for (int j = 0; j < actual; j++)
-         {  
-            int bitindex = 0;
-            do bitindex = R.nextInt(len);  while (flipped[bitindex] || weight[bitindex] > 1);
-            random.flipBit(bitindex);
-            flipped[bitindex] = true;
-         }
+         int t = j + R.nextInt(c - j);
+         int tmp = index[j];
+         index[j] = index[t];
+         index[t] = tmp;
       }
-         
-      return random;
+      if (keep)  Arrays.fill(w,0L);
+      for (j = 0; j < r; j++)  w[index[j] >>> 6] ^= Long.MIN_VALUE >>> index[j];
    }
 
-   // Selects a random Data object in the neighbourhood with Hamming distance h from this Data object
-   // - when bits representing contracted sequences are selected, the number of original bits in the
-   //   contracted sequences are counted
-   public Data randomSelectInNeighbourhood(int h)
+   // Gives the index of the t-th bit not listed in the sorted array skip (private method)
+   private static int freeIndex(int t,int[] skip)
    {
-      return this.randomSelectInNeighbourhood(1,h);
+      if (skip != null)
+      {
+         for (int f : skip)
+         {
+            if (f > t)  break;
+            t++;
+         }
+      }
+      return t;
    }
 
    // Selects a random Data object in the neighbourhood from this Data object with the following properties
@@ -1456,14 +2015,14 @@ public class Data implements Comparable<Data>, Iterable<Integer>
       if (DataArray.length == 1)  return DataArray[0].randomSelectInNeighbourhood(h,h);
 
       // we compare the objects in the array against each other
+      // (the differences are accumulated in place, word by word)
       Data df = new Data(n,false); 
-      Data cdf = null;
+      int N = df.words.length;
       for (int i = 0; i < DataArray.length; i++)
       {
          for (int j = i + 1; j < DataArray.length; j++)
          {
-            cdf = Data.diff(DataArray[i],DataArray[j]);
-            df = new Data(df,cdf,"or");
+            for (int k = 0; k < N; k++)  df.words[k] |= DataArray[i].word(k) ^ DataArray[j].word(k);
          }
       }
 
@@ -1478,7 +2037,7 @@ public class Data implements Comparable<Data>, Iterable<Integer>
 
       // we randomly select an object in DataArray, and we apply the changes specified in "not df"
       int k = new Random().nextInt(DataArray.length);
-      return Data.diff(DataArray[k],new Data(df,true));
+      return Data.xor(DataArray[k],Data.not(df));
    }
 
    /* Data conversions from and to other data (mostly primitive) types */
@@ -1582,13 +2141,7 @@ public class Data implements Comparable<Data>, Iterable<Integer>
          System.exit(1);
       }
 
-      int value = 0;
-      for (int k = 0; k < this.numberOfBits(); k++)
-      {
-         value = value << 1;
-         value = value | this.getBit(k);
-      }
-      return value;
+      return (int) (this.bitsAt(0) >>> (64 - this.numberOfBits()));
    }
 
    // Converts the Data object in a positive integer (values > 0)
@@ -1657,13 +2210,7 @@ public class Data implements Comparable<Data>, Iterable<Integer>
          System.exit(1);
       }
 
-      long value = 0;
-      for (int k = 0; k < this.numberOfBits(); k++)
-      {
-         value = value << 1;
-         value = value | (long) this.getBit(k);
-      }
-      return value;
+      return this.bitsAt(0) >>> (64 - this.numberOfBits());
    }
 
    // Converts the Data object in a positive long integer (values > 0)
@@ -1756,13 +2303,8 @@ public class Data implements Comparable<Data>, Iterable<Integer>
       }
 
       int l = this.numberOfBits();
-      Data mantissa = this;
-      if (l > 30)
-      {
-         l = 30;
-         mantissa = new Data(this,0,30);
-      }
-      return (float) mantissa.longValue() / (1 << l);
+      if (l > 30)  l = 30;
+      return (float) this.getUnsigned(0,l) / (1 << l);
    }
 
    // Converts the Data object in a nonnegative float uniformly placed in the range [0,1]
@@ -1770,8 +2312,7 @@ public class Data implements Comparable<Data>, Iterable<Integer>
    {
       int l = this.numberOfBits();
       if (l > 30)  l = 30;
-      Data max = new Data(l,true);
-      float scale = 1.0f / max.floatValue();
+      float scale = 1.0f / ((float) ((1L << l) - 1L) / (1 << l));
       return scale*this.floatValue();
    }
 
@@ -1788,24 +2329,13 @@ public class Data implements Comparable<Data>, Iterable<Integer>
          System.exit(1);
       }
 
-      int l = this.numberOfBits();
-      Data mantissa = this;
-      if (l > 62)
-      {
-         l = 62;
-         mantissa = new Data(this,0,62);
-      }
-      return (double) mantissa.longValue() / (1L << l);
+      return this.getFraction(0,this.numberOfBits());
    }
 
    // Converts the Data object in a nonnegative double uniformly placed in the range [0,1]
    public double doubleValueNormalized()
    {
-      int l = this.numberOfBits();
-      if (l > 62)  l = 62;
-      Data max = new Data(l,true);
-      double scale = 1.0 / max.doubleValue();
-      return scale*this.doubleValue();
+      return this.getNormalized(0,this.numberOfBits());
    }
 
    // Generates a new Data object from a char
@@ -1888,6 +2418,207 @@ public class Data implements Comparable<Data>, Iterable<Integer>
       return c;
    }
 
+   /* packed fields
+    *
+    * a Data object can encode a fixed sequence of unsigned fields (e.g. the parameters of a meta-heuristic):
+    * - the fields can be read directly from the bit sequence, without extracting sub-Data objects
+    * - a fieldLayout object describes the widths of the fields, and computes their offsets once for all
+    *
+    * It does not allow for reading contracted bit sequences
+    */
+
+   // Gives the unsigned value of the field consisting of the bits with indices [offset,offset+width)
+   // - the field is interpreted as in longValue (the first bit is the most significant)
+   public long getUnsigned(int offset,int width)
+   {
+      try
+      {
+         if (this.containsContractedSequences()) throw new Exception("Not suitable for contracted Data objects");
+         if (width <= 0) throw new Exception("Field width is nonpositive");
+         if (width >= 64) throw new Exception("Impossible to read the field: too many bits (sign bit is not counted)");
+         if (offset < 0 || offset + width > this.numberOfBits()) throw new Exception("Field is out of bounds");
+      }
+      catch (Exception e)
+      {
+         e.printStackTrace();
+         System.exit(1);
+      }
+
+      return this.bitsAt(offset) >>> (64 - width);
+   }
+
+   // Gives the value of the field [offset,offset+width) as a nonnegative double of form 0.m (as in doubleValue)
+   public double getFraction(int offset,int width)
+   {
+      if (width > 62)  width = 62;
+      return (double) this.getUnsigned(offset,width) / (1L << width);
+   }
+
+   // Gives the value of the field [offset,offset+width) as a double uniformly placed in [0,1] (as in doubleValueNormalized)
+   public double getNormalized(int offset,int width)
+   {
+      if (width > 62)  width = 62;
+      double scale = 1.0 / ((double) ((1L << width) - 1L) / (1L << width));
+      return scale*this.getFraction(offset,width);
+   }
+
+   // class fieldLayout
+   public static class fieldLayout
+   {
+      // fieldLayout attributes
+      private int[] offsets;  // offset of every field (the last entry is the total number of bits)
+
+      // fieldLayout constructor: the fields have the given widths, and follow one another from bit 0
+      public fieldLayout(int... widths)
+      {
+         try
+         {
+            if (widths == null) throw new Exception("fieldLayout: the array of field widths is null");
+            if (widths.length == 0) throw new Exception("fieldLayout: the array of field widths is empty");
+            this.offsets = new int [widths.length + 1];
+            for (int i = 0; i < widths.length; i++)
+            {
+               if (widths[i] <= 0 || widths[i] >= 64) throw new Exception("fieldLayout: field widths are supposed to be in [1,63]");
+               this.offsets[i+1] = this.offsets[i] + widths[i];
+            }
+         }
+         catch (Exception e)
+         {
+            e.printStackTrace();
+            System.exit(1);
+         }
+      }
+
+      // Gives the number of fields
+      public int numberOfFields()
+      {
+         return this.offsets.length - 1;
+      }
+
+      // Gives the total number of bits in the layout
+      public int numberOfBits()
+      {
+         return this.offsets[this.offsets.length - 1];
+      }
+
+      // Gives the offset of the field of index i
+      public int offset(int i)
+      {
+         return this.offsets[i];
+      }
+
+      // Gives the width of the field of index i
+      public int width(int i)
+      {
+         return this.offsets[i+1] - this.offsets[i];
+      }
+
+      // Gives the unsigned value of the field of index i in the Data object D
+      public long getUnsigned(Data D,int i)
+      {
+         return D.getUnsigned(this.offsets[i],this.offsets[i+1] - this.offsets[i]);
+      }
+
+      // Gives the value of the field of index i in the Data object D, as a double uniformly placed in [0,1]
+      public double getNormalized(Data D,int i)
+      {
+         return D.getNormalized(this.offsets[i],this.offsets[i+1] - this.offsets[i]);
+      }
+   }
+
+   /* binary serialization
+    *
+    * a Data object is encoded as follows (big-endian, as in java.nio.ByteBuffer):
+    * - an int with the number of bits n, and an int with the number of contracted sequences m
+    * - the ceil(n/64) words of the bit sequence
+    * - for each contracted sequence (in increasing order of position): an int with the index of the bit
+    *   representing the sequence, followed by the encoding of the contracted sequence itself
+    *
+    * See the class DataFile for files of encoded Data objects
+    */
+
+   // Gives the number of bytes in the binary encoding of the Data object
+   public int numberOfSerializedBytes()
+   {
+      int nbytes = 8 + 8*Data.numberOfWords(this.size);
+      if (this.containsContractedSequences())
+      {
+         for (Integer f : this.contracted.keySet())  nbytes = nbytes + 4 + this.contracted.get(f).numberOfSerializedBytes();
+      }
+      return nbytes;
+   }
+
+   // Writes the binary encoding of the Data object in the ByteBuffer, from its current position
+   public void writeTo(ByteBuffer buffer)
+   {
+      try
+      {
+         if (buffer == null) throw new Exception("The ByteBuffer object is null");
+         if (buffer.remaining() < this.numberOfSerializedBytes()) throw new Exception("Not enough space in the ByteBuffer object");
+      }
+      catch (Exception e)
+      {
+         e.printStackTrace();
+         System.exit(1);
+      }
+
+      int N = Data.numberOfWords(this.size);
+      int m = 0;
+      if (this.containsContractedSequences())  m = this.contracted.size();
+      buffer.putInt(this.size);
+      buffer.putInt(m);
+      for (int i = 0; i < N; i++)  buffer.putLong(this.word(i));
+      if (m > 0)
+      {
+         this.intervalTable();
+         for (int f : this.cbits)
+         {
+            buffer.putInt(f);
+            this.contracted.get(f).writeTo(buffer);
+         }
+      }
+   }
+
+   // Reads a Data object from its binary encoding in the ByteBuffer, from its current position
+   // - the position of the ByteBuffer is moved to the end of the encoding
+   public static Data readFrom(ByteBuffer buffer)
+   {
+      Data D = null;
+      try
+      {
+         String msg = "Binary encoding of Data object: ";
+         if (buffer == null) throw new Exception("The ByteBuffer object is null");
+         int n = buffer.getInt();
+         int m = buffer.getInt();
+         if (n <= 0) throw new Exception(msg + "the number of bits is nonpositive");
+         if (m < 0 || m > n) throw new Exception(msg + "the number of contracted sequences is out of range");
+         int N = Data.numberOfWords(n);
+         long[] w = new long [N];
+         for (int i = 0; i < N; i++)  w[i] = buffer.getLong();
+         if (w[N-1] != Data.mask_bits(w[N-1],n)) throw new Exception(msg + "the bits beyond the end of the sequence are not 0");
+         D = new Data(n,w);
+         if (m > 0)
+         {
+            D.contracted = new HashMap<Integer,Data> ();
+            int previous = -1;
+            for (int j = 0; j < m; j++)
+            {
+               int f = buffer.getInt();
+               if (f < 0 || f >= n) throw new Exception(msg + "the index of a contracted sequence is out of range");
+               if (f <= previous) throw new Exception(msg + "the indices of the contracted sequences are not strictly increasing");
+               D.contracted.put(f,Data.readFrom(buffer));
+               previous = f;
+            }
+         }
+      }
+      catch (Exception e)
+      {
+         e.printStackTrace();
+         System.exit(1);
+      }
+      return D;
+   }
+
    /* Data compression methods */
 
    // Compresses the Data object so that, for every subsequence of bits of equal length
@@ -2005,44 +2736,73 @@ public class Data implements Comparable<Data>, Iterable<Integer>
 
    /* private methods */
 
-   // Checks whether the Data object invariats are satisfied (private method)
-   private boolean check_invariants()
+   // Checks whether the Data object invariats are satisfied (protected method)
+   protected boolean check_invariants()
    {
-      if (this.size == 0)  return false;
-      if (this.data == null)  return false;
-      if (8*this.data.size() < this.size)  return false;
-      int nbits = this.size%8;
-      if (nbits != 0)
-      {
-         int last = this.data.get(this.data.size() - 1);
-         last = (last << nbits) & 255;
-         if (last != 0)  return false;
-      }
+      if (this.size <= 0)  return false;
+      if (this.words == null)  return false;
+      if (this.view)  return this.offset >= 0 && (long) this.offset + this.size <= 64L*this.words.length;
+      if (this.offset != 0)  return false;
+      if (this.words.length != Data.numberOfWords(this.size))  return false;
+      long last = this.words[this.words.length - 1];
+      if (last != Data.mask_bits(last,this.size))  return false;
       return true;
    }
 
-   // Masks the extra bits that are not necessary in the Data object representation of the bytes
-   // (they may cause some issues when the corresponding values are not set to 0; private method)
-   private static int mask_bits(int b,int extrabits)
+   // Copies 'len' bits of D, starting from bit 'from', in the array of words 'dest', starting from bit 'to'
+   // - the bits are copied by blocks of 64 bits (one or two shifts per block); the destination bits are supposed to be 0
+   // - private method, it doesnt verify if the bit indices are correct
+   private static void copyBits(Data D,int from,long[] dest,int to,int len)
    {
-      try
-      {
-         if (extrabits < 0 || extrabits > 7) throw new Exception("Parameter 'extrabits' cannot be equal to " + extrabits);
-      }
-      catch (Exception e)
+      for (int j = 0; j < len; j = j + 64)
       {
-         e.printStackTrace();
-         System.exit(1);
+         long w = D.bitsAt(from + j);
+         if (len - j < 64)  w = w & (-1L << (64 - len + j));
+         int i = (to + j) >>> 6;
+         int s = (to + j) & 63;
+         dest[i] |= w >>> s;
+         if (s != 0 && i + 1 < dest.length)  dest[i+1] |= w << (64 - s);
       }
+   }
 
-      int mask = 255;
-      while (extrabits > 0)
+   // Flips the bits of indices [from,from+len) in the array of words w (private method)
+   private static void flipBits(long[] w,int from,int len)
+   {
+      int last = from + len;
+      while (from < last)
       {
-         mask = (mask << 1) & 255;
-         extrabits--;
+         int i = from >>> 6;
+         int s = from & 63;
+         int nbits = Math.min(64 - s,last - from);
+         long mask = (-1L >>> s) & (-1L << (64 - s - nbits));
+         w[i] ^= mask;
+         from = from + nbits;
       }
+   }
+
+   // Gives D itself when it does not contain contracted sequences, an uncontracted copy of D otherwise (private method)
+   private static Data uncontracted(Data D)
+   {
+      if (!D.containsContractedSequences())  return D;
+      int n = D.length();
+      long[] w = new long [Data.numberOfWords(n)];
+      D.expandInto(w,0,false);
+      return new Data(n,w);
+   }
 
-      return b & mask;
+   // Gives the number of 64-bit words necessary to store n bits (private method)
+   private static int numberOfWords(int n)
+   {
+      return (n + 63) >>> 6;
+   }
+
+   // Masks the extra bits of the last word that are not necessary in the representation of n bits
+   // (they may cause some issues when the corresponding values are not set to 0; private method)
+   private static long mask_bits(long w,int n)
+   {
+      int nbits = n & 63;
+      if (nbits == 0)  return w;
+      return w & (-1L << (64 - nbits));
    }
 
    /* comparison methods */
@@ -2056,36 +2816,170 @@ public class Data implements Comparable<Data>, Iterable<Integer>
 
       // initial comparisons
       Data D = (Data) o;
-      int l = this.length();
-      if (l != D.length())  return false;
+      if (this == D)  return true;
+      if (this.length() != D.length())  return false;
+      if (this.hashed && D.hashed && this.hash != D.hash)  return false;
+      if (this.fingerprinted && D.fingerprinted && this.fingerprint != D.fingerprint)  return false;
+
+      // uncontracted versions (copies are performed only in presence of contracted sequences)
+      Data D1 = Data.uncontracted(this);
+      Data D2 = Data.uncontracted(D);
+
+      // comparing word per word
+      int N = Data.numberOfWords(D1.size);
+      for (int i = 0; i < N; i++)  if (D1.word(i) != D2.word(i))  return false;
+
+      return true;
+   }
+
+   // Gives a 64-bit hash of the bit sequence (contracted sequences are uncontracted)
+   // - the hash is computed only once, and then cached in the Data object
+   public long longHashCode()
+   {
+      if (!this.hashed)
+      {
+         Data D = Data.uncontracted(this);
+         long h = D.size;
+         int N = Data.numberOfWords(D.size);
+         for (int i = 0; i < N; i++)
+         {
+            h = (h ^ D.word(i))*0x9E3779B97F4A7C15L;
+            h = h ^ (h >>> 29);
+         }
+         h = (h ^ (h >>> 33))*0xFF51AFD7ED558CCDL;
+         h = h ^ (h >>> 33);
+         this.hash = h;
+         this.hashed = true;
+      }
+      return this.hash;
+   }
+
+   // hashCode (consistent with equals: based on the 64-bit hash of the uncontracted bit sequence)
+   @Override
+   public int hashCode()
+   {
+      long h = this.longHashCode();
+      return (int) (h ^ (h >>> 32));
+   }
 
-      // using temporary objects
-      Data D1 = new Data(this);
-      Data D2 = new Data(D);
+   // Gives the 64-bit fingerprint of the bit sequence (contracted sequences are uncontracted)
+   // - Zobrist hashing: every bit position has a random key, the fingerprint is the XOR of the keys
+   //   of the bits equal to 1, and of a key depending on the length of the sequence
+   // - the fingerprint is computed only once, and then cached in the Data object; when a bit is flipped
+   //   in place (see MutableData), the cached fingerprint is updated in O(1) by XOR-ing the key of the bit
+   // - it is slower to compute than 'longHashCode', but the fingerprints of the neighbours are cheap
+   //   (see 'fingerprintWithBitsFlipped')
+   public long fingerprint()
+   {
+      if (!this.fingerprinted)
+      {
+         Data D = Data.uncontracted(this);
+         int N = Data.numberOfWords(D.size);
+         long[] table = Data.keys(64*N);
+         long h = Data.mix(-1L - D.size);
+         for (int i = 0; i < N; i++)
+         {
+            long w = D.word(i);
+            if (w == 0L)  continue;
+            int base = 256*i;
+            for (int j = 0; j < 16; j++)  h = h ^ table[base + 16*j + (int) ((w >>> (60 - 4*j)) & 15L)];
+         }
+         this.fingerprint = h;
+         this.fingerprinted = true;
+      }
+      return this.fingerprint;
+   }
 
-      // contracted sequences?
-      if (D1.containsContractedSequences() || D2.containsContractedSequences())
+   // Gives the fingerprint of the Data object obtained by flipping the specified bits, without creating it
+   // - flipping a contracted bit flips the entire contracted sequence (see 'uncontract')
+   // - a bit index appearing twice is flipped twice
+   public long fingerprintWithBitsFlipped(int... bits)
+   {
+      try
       {
-         if (D1.containsContractedSequences())  D1.uncontract();
-         if (D2.containsContractedSequences())  D2.uncontract();
-         l = D1.numberOfBits();
-         if (l != D2.numberOfBits())  return false;
+         if (bits == null) throw new Exception("The array of bit indices is null");
+         for (int k : bits)  if (k < 0 || k >= this.size) throw new Exception("Bit index is out of range");
+      }
+      catch (Exception e)
+      {
+         e.printStackTrace();
+         System.exit(1);
+      }
+
+      long h = this.fingerprint();
+      for (int k : bits)  h = h ^ this.flipKey(k);
+      return h;
+   }
+
+   // Gives the XOR of the keys of the bits that change in the uncontracted sequence when the bit k is flipped (private method)
+   private long flipKey(int k)
+   {
+      if (!this.containsContractedSequences())  return Data.key(k);
+
+      // position of k in the uncontracted sequence (see 'intervalTable')
+      this.intervalTable();
+      int j = Arrays.binarySearch(this.cbits,k);
+      if (j >= 0)
+      {
+         int first = this.cstart[j];
+         int last = first + this.contracted.get(k).length();
+         long h = 0L;
+         for (int i = first; i < last; i++)  h = h ^ Data.key(i);
+         return h;
+      }
+      j = -j - 1;
+      int next = this.size;
+      if (j < this.cbits.length)  next = this.cbits[j];
+      return Data.key(this.cstart[j] - (next - k));
+   }
+
+   // Gives the random key of the bit of index k (used for fingerprints)
+   // - protected method, it doesnt verify if the bit index is correct
+   // - it is the entry of the table for bit k alone (see 'keys'), computed without the table
+   protected static long key(int k)
+   {
+      return Data.mix(k);
+   }
+
+   // Gives the table of the random keys of the bit positions, covering at least the first n bits (private method)
+   // - the bits are grouped by 4: entry 16*q + v is the XOR of the keys of the bits set in v (as a 4-bit integer),
+   //   among the bits 4q, ..., 4q + 3; so that a 64-bit word is fingerprinted with 16 table lookups
+   // - the keys do not depend on any Random object, so that fingerprints are the same in every run
+   // - a larger table is filled in before being published (the reference is volatile): another thread sees either
+   //   the old table or the complete new one; when two threads grow the table at the same time, they build the same keys
+   private static long[] keys(int n)
+   {
+      long[] table = Data.keys;
+      int m = (n + 3) >>> 2;
+      if (table.length < 16*m)
+      {
+         int old = table.length/16;
+         m = Math.max(m,Math.max(16,2*old));
+         table = Arrays.copyOf(table,16*m);
+         for (int q = old; q < m; q++)
+         {
+            for (int v = 1; v < 16; v++)
+            {
+               int k = 4*q + 3 - Integer.numberOfTrailingZeros(v);  // bit corresponding to the lowest bit of v
+               table[16*q + v] = table[16*q + (v & (v - 1))] ^ Data.mix(k);
+            }
+         }
+         Data.keys = table;
       }
-
-      // comparing byte per byte
-      l = D1.data.size();
-      for (int i = 0; i < l; i++)  if (!D1.data.get(i).equals(D2.data.get(i)))  return false;
-
-      return true;
+      return table;
    }
 
-   // hashCode
-   @Override
-   public int hashCode()
+   // Mixes the bits of a 64-bit integer (bijective function, from the SplitMix64 generator)
+   // - protected method, used for fingerprints
+   protected static long mix(long z)
    {
-      return this.data.hashCode();
+      z = (z + 1L)*0x9E3779B97F4A7C15L;
+      z = (z ^ (z >>> 30))*0xBF58476D1CE4E5B9L;
+      z = (z ^ (z >>> 27))*0x94D049BB133111EBL;
+      return z ^ (z >>> 31);
    }
 
+
    // compareTo
    @Override
    public int compareTo(Data D)  // initial version coded by Theo Giraudet (M1 Info, 2020-21)
@@ -2101,10 +2995,8 @@ public class Data implements Comparable<Data>, Iterable<Integer>
       }
 
       // uncontracting the Data objects (if necessary)
-      Data D1 = new Data(this);
-      Data D2 = new Data(D);
-      if (D1.containsContractedSequences())  D1.uncontract();
-      if (D2.containsContractedSequences())  D2.uncontract();
+      Data D1 = Data.uncontracted(this);
+      Data D2 = Data.uncontracted(D);
 
       // comparing
       int compare = 0;
@@ -2120,11 +3012,13 @@ public class Data implements Comparable<Data>, Iterable<Integer>
       }
       else
       {
+         // the first different bit is the most significant bit of the first different word
+         int N = Data.numberOfWords(nD);
          int i = 0;
-         while (i < nD && D1.getBit(i) == D2.getBit(i))  i++;
-         if (i != nD)
+         while (i < N && D1.word(i) == D2.word(i))  i++;
+         if (i != N)
          {
-            if (D1.getBit(i) < D2.getBit(i))
+            if (Long.compareUnsigned(D1.word(i),D2.word(i)) < 0)
                compare = -1;
             else
                compare = 1;
@@ -2136,37 +3030,279 @@ public class Data implements Comparable<Data>, Iterable<Integer>
    }         
 
    // toString (it does not show the contracted bit sequences)
+   // - the bits are grouped by byte, as in "[01101001|101] (11;2)"; the last field is "c" for contracted objects
+   // - the characters are written in one single char array
    public String toString()
    {
-      int k = 0;
-      String print = "[";
-      for (int i = 0; i < this.numberOfBytes(); i++)
+      int nbytes = this.numberOfBytes();
+      char[] c = new char [this.size + nbytes + 1];
+      c[0] = '[';
+      int pos = 1;
+      for (int i = 0; i < nbytes; i++)  pos = this.formatByte(i,c,pos);
+      c[pos] = ']';
+      String print = " (" + this.numberOfBits() + ";" + nbytes;
+      if (this.containsContractedSequences())  print = print + ";c";
+      return new String(c) + print + ")";
+   }
+
+   // Writes the String representation of the Data object (as in toString) in the Appendable object
+   // - the characters are written in chunks, so that the whole String is never built in memory
+   public void writeTo(Appendable out)
+   {
+      try
       {
-         if (i != 0)  print = print + "|";
-         byte b = (byte) this.data.get(i);
-         for (int j = 7; j >= 0; j--)
+         if (out == null) throw new Exception("The Appendable object is null");
+         int nbytes = this.numberOfBytes();
+         char[] chunk = new char [4096];
+         chunk[0] = '[';
+         int pos = 1;
+         for (int i = 0; i < nbytes; i++)
          {
-            if (k < this.size)
+            if (pos > chunk.length - 9)
             {
-               print = print + (b>>j & 1);
-               k++;
+               out.append(CharBuffer.wrap(chunk,0,pos));
+               pos = 0;
             }
+            pos = this.formatByte(i,chunk,pos);
          }
+         out.append(CharBuffer.wrap(chunk,0,pos));
+         out.append("] (" + this.numberOfBits() + ";" + nbytes + (this.containsContractedSequences() ? ";c)" : ")"));
       }
-      print = print + "] (" + this.numberOfBits() + ";" + this.numberOfBytes();
-      if (this.containsContractedSequences())  print = print + ";c";
-      return print + ")";
+      catch (Exception e)
+      {
+         e.printStackTrace();
+         System.exit(1);
+      }
+   }
+
+   // Writes the characters '0' and '1' of the byte of index i in the char array c, from position pos (private method)
+   // - the byte is preceded by the separator '|' when it is not the first one
+   // - it gives the position following the last written character
+   private int formatByte(int i,char[] c,int pos)
+   {
+      if (i != 0)  c[pos++] = '|';
+      int b = (int) (this.word(i >>> 3) >>> (56 - 8*(i & 7)));
+      int nbits = Math.min(8,this.size - 8*i);
+      for (int j = 0; j < nbits; j++)  c[pos++] = (char) ('0' + ((b >>> (7 - j)) & 1));
+      return pos;
+   }
+
+   // Parses a Data object from a String in one of the two following formats:
+   // - a sequence of '0' and '1' characters (as in the constructor Data(String))
+   // - the format of toString, such as "[01101001|101] (11;2)" (the part in parentheses is optional);
+   //   notice that the contracted bit sequences are not shown in this format, and therefore they are lost
+   public static Data parse(String s)
+   {
+      Data D = null;
+      try
+      {
+         if (s == null) throw new Exception("Input String object is null");
+         s = s.trim();
+         if (s.length() == 0) throw new Exception("Input String object is empty");
+         if (s.charAt(0) != '[')  return new Data(s);
+
+         // counting the bits between brackets
+         int end = s.indexOf(']');
+         if (end < 0) throw new Exception("Data format: the closing bracket is missing");
+         int n = 0;
+         for (int i = 1; i < end; i++)
+         {
+            char c = s.charAt(i);
+            if (c == '0' || c == '1')
+               n++;
+            else if (c != '|')
+               throw new Exception("Data format: unexpected character '" + c + "' between brackets");
+         }
+         if (n == 0) throw new Exception("Data format: no bits between brackets");
+
+         // verifying the (optional) part in parentheses
+         String tail = s.substring(end + 1).trim();
+         if (tail.length() > 0)
+         {
+            if (tail.charAt(0) != '(' || tail.charAt(tail.length() - 1) != ')') throw new Exception("Data format: unexpected characters after the closing bracket");
+            String[] fields = tail.substring(1,tail.length() - 1).split(";");
+            if (fields.length < 2 || Integer.parseInt(fields[0].trim()) != n) throw new Exception("Data format: the number of bits in parentheses does not match");
+         }
+
+         // setting the bits
+         long[] w = new long [Data.numberOfWords(n)];
+         int k = 0;
+         for (int i = 1; i < end; i++)
+         {
+            char c = s.charAt(i);
+            if (c == '1')  w[k >>> 6] |= Long.MIN_VALUE >>> k;
+            if (c != '|')  k++;
+         }
+         D = new Data(n,w);
+      }
+      catch (Exception e)
+      {
+         e.printStackTrace();
+         System.exit(1);
+      }
+      return D;
+   }
+
+   /* combinatorics */
+
+   // Gives the binomial coefficient "n choose k"
+   // - the result saturates at Long.MAX_VALUE (use 'exactBinomial' for the exact value)
+   public static long binomial(int k,int n)
+   {
+      try
+      {
+         if (n < 0) throw new Exception("Impossible to compute binomial coefficient: n is negative");
+         if (k < 0) throw new Exception("Impossible to compute binomial coefficient: k is negative");
+      }
+      catch (Exception e)
+      {
+         e.printStackTrace();
+         System.exit(1);
+      }
+
+      return Data.binomial(k,n,Long.MAX_VALUE);
+   }
+
+   // Gives the exact value of the binomial coefficient "n choose k"
+   public static BigInteger exactBinomial(int k,int n)
+   {
+      try
+      {
+         if (n < 0) throw new Exception("Impossible to compute binomial coefficient: n is negative");
+         if (k < 0) throw new Exception("Impossible to compute binomial coefficient: k is negative");
+      }
+      catch (Exception e)
+      {
+         e.printStackTrace();
+         System.exit(1);
+      }
+
+      if (k > n)  return BigInteger.ZERO;
+      if (k > n - k)  k = n - k;
+      BigInteger b = BigInteger.ONE;
+      for (int i = 1; i <= k; i++)  b = b.multiply(BigInteger.valueOf(n - k + i)).divide(BigInteger.valueOf(i));
+      return b;
+   }
+
+   // Gives the natural logarithm of the binomial coefficient "n choose k" (-Infinity when k > n)
+   // - it is based on a table of logarithms of factorials, which is extended when necessary
+   public static double logBinomial(int k,int n)
+   {
+      try
+      {
+         if (n < 0) throw new Exception("Impossible to compute binomial coefficient: n is negative");
+         if (k < 0) throw new Exception("Impossible to compute binomial coefficient: k is negative");
+      }
+      catch (Exception e)
+      {
+         e.printStackTrace();
+         System.exit(1);
+      }
+
+      if (k > n)  return Double.NEGATIVE_INFINITY;
+      double[] table = Data.logFactorials;
+      if (table.length <= n)
+      {
+         int old = table.length;
+         table = Arrays.copyOf(table,Math.max(n + 1,2*old));
+         for (int i = old; i < table.length; i++)  table[i] = table[i-1] + Math.log(i);
+         Data.logFactorials = table;
+      }
+      return table[n] - table[k] - table[n-k];
+   }
+
+   // Gives the combination of k bit indices (in [0,n)) having the specified rank in colexicographic order
+   // - combinatorial number system: rank = C(c[0],1) + C(c[1],2) + ... + C(c[k-1],k), with c[0] < c[1] < ... < c[k-1]
+   public static int[] unrankCombination(long rank,int k,int n)
+   {
+      try
+      {
+         if (k < 0 || k > n) throw new Exception("Impossible to unrank combination: k is out of range");
+         if (rank < 0L || rank >= Data.binomial(k,n)) throw new Exception("Impossible to unrank combination: rank is out of range");
+      }
+      catch (Exception e)
+      {
+         e.printStackTrace();
+         System.exit(1);
+      }
+
+      // greedy choice of the indices, from the largest one (the binomials are only computed up to rank + 1)
+      int[] c = new int [k];
+      int x = n;
+      for (int i = k; i >= 1; i--)
+      {
+         do x--;  while (Data.binomial(i,x,rank + 1L) > rank);
+         c[i-1] = x;
+         rank = rank - Data.binomial(i,x);
+      }
+      return c;
+   }
+
+   // Gives the rank in colexicographic order of a combination of bit indices (given in increasing order)
+   // - the result saturates at Long.MAX_VALUE
+   public static long rankCombination(int[] c)
+   {
+      try
+      {
+         if (c == null) throw new Exception("Impossible to rank combination: the array of indices is null");
+         for (int i = 0; i < c.length; i++)
+         {
+            if (c[i] < 0) throw new Exception("Impossible to rank combination: negative bit index");
+            if (i > 0 && c[i] <= c[i-1]) throw new Exception("Impossible to rank combination: bit indices are not in increasing order");
+         }
+      }
+      catch (Exception e)
+      {
+         e.printStackTrace();
+         System.exit(1);
+      }
+
+      long rank = 0L;
+      for (int i = 0; i < c.length && rank < Long.MAX_VALUE; i++)
+      {
+         long b = Data.binomial(i + 1,c[i]);
+         if (b > Long.MAX_VALUE - rank)  return Long.MAX_VALUE;
+         rank = rank + b;
+      }
+      return rank;
    }
 
    // binomial calculation (private and static, no argument verification)
-   private static int binomial(int k,int n)
+   // - multiplicative formula: C(n-k+i,i) = C(n-k+i-1,i-1)*(n-k+i)/i is computed for i = 1,...,k
+   // - the partial results are increasing, so that the computation stops as soon as 'bound' is attained
+   //   (the returned value is then 'bound'; the bound Long.MAX_VALUE is used in case of overflow)
+   private static long binomial(int k,int n,long bound)
    {
       // easy cases
-      if (k > n)  return 0;
-      if (k == 0 || k == n)  return 1;
- 
-      // recurrency
-      return Data.binomial(k-1,n-1) + Data.binomial(k,n-1);
+      if (k > n)  return 0L;
+      if (k > n - k)  k = n - k;
+      if (k == 0)  return Math.min(1L,bound);
+      if (n >= bound)  return bound;  // C(n,k) >= n for 0 < k < n
+
+      // multiplicative formula (divisions are exact: r*m is divisible by i, hence m by i/g)
+      long r = 1L;
+      for (int i = 1; i <= k; i++)
+      {
+         long g = Data.gcd(r,i);
+         long m = (n - k + i)/(i/g);
+         r = r/g;
+         if (r > bound/m)  return bound;
+         r = r*m;
+         if (r >= bound)  return bound;
+      }
+      return r;
+   }
+
+   // greatest common divisor (private and static, no argument verification)
+   private static long gcd(long a,long b)
+   {
+      while (b != 0L)
+      {
+         long t = a%b;
+         a = b;
+         b = t;
+      }
+      return a;
    }
 
    // main (performing tests)
@@ -2231,6 +3367,15 @@ public class Data implements Comparable<Data>, Iterable<Integer>
             if (D.numberOfOnes() > Math.floor((p + 0.01)*n)) throw E;
             if (!D.check_invariants()) throw E;
             if (R.nextDouble() < 0.2)  another = D;
+
+            // public Data(int,Random,double) (about half of the bits set to 1, in a longer sequence)
+            E = new Exception("Constructor public Data(int,Random,double)");
+            int m = 256 + R.nextInt(100*max);
+            p = 0.45 + 0.1*R.nextDouble();
+            D = new Data(m,R,p);
+            if (!D.check_invariants()) throw E;
+            if (D.numberOfOnes() < Math.floor(p*m)) throw E;
+            if (D.numberOfOnes() > Math.floor((p + 0.01)*m)) throw E;
          }
          catch (Exception e)
          {
@@ -2413,6 +3558,49 @@ public class Data implements Comparable<Data>, Iterable<Integer>
             System.exit(1);
          }
 
+         try
+         {
+            // public Data(Data,int,int) (views sharing the storage of the original object)
+            Exception E = new Exception("Constructor public Data(Data,int,int) (views)");
+            int m = 2 + R.nextInt(3*max);
+            Data A = new Data(m,0.5);
+            int first = R.nextInt(m - 1);
+            int last = first + 1 + R.nextInt(m - first);
+            Data V = new Data(A,first,last);
+            if (!V.check_invariants()) throw E;
+            if (V.numberOfBits() != last - first) throw E;
+            int nOnes = 0;
+            for (int i = 0; i < V.numberOfBits(); i++)
+            {
+               if (V.getBit(i) != A.getBit(first + i)) throw E;
+               nOnes = nOnes + V.getBit(i);
+            }
+            if (V.numberOfOnes() != nOnes) throw E;
+            Data C = new Data(V);
+            if (!C.check_invariants()) throw E;
+            if (!C.equals(V) || !V.equals(C)) throw E;
+            if (C.hashCode() != V.hashCode()) throw E;
+            if (!Arrays.equals(C.toByteArray(),V.toByteArray())) throw E;
+            if (new Data(V,V,"xor").numberOfOnes() != 0) throw E;
+            if (new Data(V,C).numberOfOnes() != 2*nOnes) throw E;
+            if (V.numberOfBits() > 1)
+            {
+               int k = 1 + R.nextInt(V.numberOfBits() - 1);
+               Data W = new Data(V,k,V.numberOfBits());  // view of a view
+               if (!W.check_invariants()) throw E;
+               if (!W.equals(new Data(A,first + k,last))) throw E;
+            }
+            MutableData M = new MutableData(A);
+            Data F = new Data(M,first,last);
+            M.flip(first);
+            if (!F.equals(V)) throw E;
+         }
+         catch (Exception e)
+         {
+            e.printStackTrace();
+            System.exit(1);
+         }
+
          try
          {
             // public Data(Data,Data,String)
@@ -2497,6 +3685,23 @@ public class Data implements Comparable<Data>, Iterable<Integer>
                if (X.getBit(i) != A.getBit(i)) throw E;
             }
             if (!X.check_invariants()) throw E;
+
+            // public static Data and, or, xor, andNot and not
+            E = new Exception("public static Data and, or, xor, andNot and not");
+            if (!Data.and(A,B).equals(new Data(A,B,"and"))) throw E;
+            if (!Data.or(A,B).equals(new Data(A,B,"or"))) throw E;
+            if (!Data.xor(A,B).equals(Y)) throw E;
+            if (!Data.andNot(A,B).equals(new Data(A,notB,"and"))) throw E;
+            if (!Data.not(A).equals(notA)) throw E;
+            if (!Data.andNot(A,B).check_invariants()) throw E;
+            if (n > 2)
+            {
+               Data VA = new Data(A,1,n);
+               Data VB = new Data(B,1,n);
+               X = Data.xor(VA,VB);
+               if (!X.check_invariants()) throw E;
+               if (!X.equals(new Data(Y,1,n))) throw E;
+            }
          }
          catch (Exception e)
          {
@@ -2662,6 +3867,27 @@ public class Data implements Comparable<Data>, Iterable<Integer>
                U = new Data(D);
                U.uncontract();
                if (!U.equals(original)) throw E;
+
+               // nested contracted sequences (the range includes a contracted bit, which is flipped), and uncontract
+               n = D.numberOfBits();
+               if (n > 3)
+               {
+                  int first = R.nextInt(n - 2);
+                  int last = first + 2 + R.nextInt(n - first - 1);
+                  Data N = new Data(D);
+                  N.contract(first,last);
+                  if (N.length() != original.numberOfBits()) throw E;
+                  if (!N.equals(original) || N.hashCode() != original.hashCode()) throw E;
+                  if (N.hammingDistanceTo(original) != 0) throw E;
+                  MutableData M = new MutableData(N,R);
+                  M.flip(first);
+                  Data F = M.freeze();
+                  if (F.length() != original.numberOfBits()) throw E;
+                  if (F.hammingDistanceTo(original) != N.contracted.get(first).length()) throw E;
+                  F.uncontract();
+                  if (!F.check_invariants()) throw E;
+                  if (F.numberOfBits() != original.numberOfBits()) throw E;
+               }
             }
          }
          catch (Exception e)
@@ -2768,6 +3994,60 @@ public class Data implements Comparable<Data>, Iterable<Integer>
       }
       System.out.println("OK");
 
+      // setBitIterator (and Data methods "nextSetBit" and "forEachSetBit")
+      System.out.print("Testing setBitIterator ... ");
+      for (int itest = 0; itest < NTESTS; itest++)
+      {
+         Exception E = new Exception("internal class setBitIterator");
+         try
+         {
+            int n = min + R.nextInt(max - min);
+            double p = R.nextBoolean() ? 0.02*R.nextDouble() : R.nextDouble();
+            Data D = new Data(n,p);
+            if (n > 10 && R.nextBoolean())
+            {
+               int first = R.nextInt(n/2);
+               D = new Data(D,first,first + 1 + R.nextInt(n - first - 1));  // view
+               n = D.numberOfBits();
+            }
+            List<Integer> ones = new ArrayList<Integer> ();
+            for (int i = 0; i < n; i++)  if (D.getBit(i) == 1)  ones.add(i);
+
+            // iterator
+            setBitIterator It = D.setBits();
+            for (int k : ones)
+            {
+               if (!It.hasNext()) throw E;
+               if (It.nextInt() != k) throw E;
+            }
+            if (It.hasNext()) throw E;
+            It.reset();
+            if (It.hasNext() != (ones.size() > 0)) throw E;
+
+            // nextSetBit
+            Exception F = new Exception("public int nextSetBit(int)");
+            int j = 0;
+            for (int i = 0; i <= n; i++)
+            {
+               while (j < ones.size() && ones.get(j) < i)  j++;
+               if (D.nextSetBit(i) != (j < ones.size() ? ones.get(j) : -1)) throw F;
+            }
+            if (D.nextSetBit(n + 64) != -1) throw F;
+
+            // forEachSetBit
+            F = new Exception("public void forEachSetBit(IntConsumer)");
+            List<Integer> visited = new ArrayList<Integer> ();
+            D.forEachSetBit(k -> visited.add(k));
+            if (!visited.equals(ones)) throw F;
+         }
+         catch (Exception e)
+         {
+            e.printStackTrace();
+            System.exit(1);
+         }
+      }
+      System.out.println("OK");
+
       // static methods acting like constructors of more complex Data objects
       System.out.print("Testing static methods (extra constructors) ... ");
       for (int itest = 0; itest < NTESTS; itest++)
@@ -2981,6 +4261,21 @@ public class Data implements Comparable<Data>, Iterable<Integer>
                if (Data.diff(ref,tmp).numberOfOnes() > 0) throw E;
                len = len + nn;
             }
+            Data A = lD.get(R.nextInt(m));
+            if (A.numberOfBits() > 3 && !A.containsContractedSequences())
+            {
+               // contracted sequences are moved to their new positions
+               Data B = new Data(A);
+               B.contract(1,3);
+               ArrayList<Data> AB = new ArrayList<Data> ();
+               AB.add(B);
+               AB.add(A);
+               AB.add(B);
+               Data C = Data.concat(AB);
+               if (C.length() != 3*A.numberOfBits()) throw E;
+               C.uncontract();
+               if (!C.equals(new Data(A,new Data(A,A)))) throw E;
+            }
             if (R.nextDouble() < percentage)  forcomparisons.add(D);
          }
          catch (Exception e)
@@ -3038,6 +4333,9 @@ public class Data implements Comparable<Data>, Iterable<Integer>
             else
             {
                if (Data.diff(D,Attractor).numberOfOnes() < Data.diff(S,Attractor).numberOfOnes()) throw E;
+               int m = Data.diff(D,Attractor).numberOfOnes();
+               if (Data.diff(S,Attractor).numberOfOnes() != m - (int) ((1.0 - speed)*m)) throw E;
+               if (Data.diff(S,D).numberOfOnes() != (int) ((1.0 - speed)*m)) throw E;
             }
          }
          catch (Exception e)
@@ -3075,6 +4373,8 @@ public class Data implements Comparable<Data>, Iterable<Integer>
             else
             {
                if (Data.diff(D,Repellent).numberOfOnes() > Data.diff(S,Repellent).numberOfOnes()) throw E;
+               int m = Data.diff(D,Data.not(Repellent)).numberOfOnes();
+               if (Data.diff(S,D).numberOfOnes() != (int) ((1.0 - speed)*m)) throw E;
             }
          }
          catch (Exception e)
@@ -3148,6 +4448,34 @@ public class Data implements Comparable<Data>, Iterable<Integer>
             System.exit(1);
          }
 
+         // public boolean hammingDistanceAtMost(Data,int)
+         try
+         {
+            int n = min + R.nextInt(max - min);
+            Data D1 = new Data(n,0.2 + 0.4*R.nextDouble());
+            Data D2 = new Data(n,0.4 + 0.4*R.nextDouble());
+            Exception E = new Exception("public boolean hammingDistanceAtMost(Data,int)");
+            int h = D1.hammingDistanceTo(D2);
+            if (!D1.hammingDistanceAtMost(D2,h)) throw E;
+            if (!D2.hammingDistanceAtMost(D1,h + R.nextInt(n))) throw E;
+            if (h > 0 && D1.hammingDistanceAtMost(D2,h - 1)) throw E;
+            if (h > 0 && D2.hammingDistanceAtMost(D1,R.nextInt(h))) throw E;
+            if (!D1.hammingDistanceAtMost(D1,0)) throw E;
+            if (n > 10)
+            {
+               int cut1 = R.nextInt(n/2 - 1);
+               int cut2 = cut1 + 2 + R.nextInt(n/2 - 2);
+               D1.contract(cut1,cut2);
+               if (!D1.hammingDistanceAtMost(D2,h)) throw E;
+               if (h > 0 && D2.hammingDistanceAtMost(D1,h - 1)) throw E;
+            }
+         }
+         catch (Exception e)
+         {
+            e.printStackTrace();
+            System.exit(1);
+         }
+
          // public int numberOfData/OnCircle/InNeighbourhood(?,int)
          try
          {
@@ -3174,6 +4502,35 @@ public class Data implements Comparable<Data>, Iterable<Integer>
             System.exit(1);
          }
 
+         // public static long binomial(int,int), exactBinomial(int,int), logBinomial(int,int) and isCircleSmallerThan(int,long)
+         try
+         {
+            Exception E1 = new Exception("public static long binomial(int,int)");
+            Exception E2 = new Exception("public static BigInteger exactBinomial(int,int)");
+            Exception E3 = new Exception("public static double logBinomial(int,int)");
+            Exception E4 = new Exception("public boolean isCircleSmallerThan(int,long)");
+            int n = min + R.nextInt(10*max);
+            int k = R.nextInt(n + 1);
+            BigInteger B = Data.exactBinomial(k,n);
+            if (k > 0 && !B.equals(Data.exactBinomial(k-1,n-1).add(Data.exactBinomial(k,n-1)))) throw E2;
+            if (!B.equals(Data.exactBinomial(n-k,n))) throw E2;
+            long b = Data.binomial(k,n);
+            if (B.bitLength() <= 63 && b != B.longValue()) throw E1;
+            if (B.bitLength() > 63 && b != Long.MAX_VALUE) throw E1;
+            if (Data.binomial(n+1,n) != 0L || Data.exactBinomial(n+1,n).signum() != 0) throw E1;
+            double logB = Math.log(B.doubleValue());
+            if (Double.isFinite(logB) && Math.abs(Data.logBinomial(k,n) - logB) > 1.0e-9*Math.max(1.0,logB)) throw E3;
+            Data D = new Data(n,0.5);
+            long N = 1L + R.nextInt(10000);
+            if (D.isCircleSmallerThan(k,N) != (B.compareTo(BigInteger.valueOf(N)) < 0)) throw E4;
+            if (D.numberOfDataOnCircle(k) != B.min(BigInteger.valueOf(Integer.MAX_VALUE)).intValue()) throw E4;
+         }
+         catch (Exception e)
+         {
+            e.printStackTrace();
+            System.exit(1);
+         }
+
          // public Data randomSelectInNeighbourhood(?,int)
          try
          {
@@ -3198,6 +4555,37 @@ public class Data implements Comparable<Data>, Iterable<Integer>
                if (D.hammingDistanceTo(F) < h) throw E;
                if (F.hammingDistanceTo(D) > h) throw E;
             }
+            E = new Exception("public Data bernoulliMutation(double,Random)");
+            F = D.bernoulliMutation(0.0,R);
+            if (!F.check_invariants() || !F.equals(D)) throw E;
+            F = D.bernoulliMutation(1.0,R);
+            if (!F.check_invariants() || F.numberOfBits() != D.numberOfBits()) throw E;
+            for (int k = 0; k < D.numberOfBits(); k++)  if (F.getBit(k) == D.getBit(k)) throw E;
+            F = D.bernoulliMutation(R.nextDouble(),R);
+            if (!F.check_invariants() || F.containsContractedSequences() != D.containsContractedSequences()) throw E;
+            E = new Exception("public Data randomSelectInNeighbourhood(?,int,Random)");
+            D = new Data(n,0.5);
+            l = 1 + R.nextInt(n);
+            u = l + R.nextInt(n - l + 1);
+            F = D.randomSelectInNeighbourhood(l,u,R);
+            if (!F.check_invariants()) throw E;
+            int h = D.hammingDistanceTo(F);
+            if (h < Math.min(l,n - 1) || h > u) throw E;
+            F = D.randomSelectInNeighbourhood(u,R);
+            if (F.hammingDistanceTo(D) > u) throw E;
+            if (n > 20)
+            {
+               D.contract(0,3);
+               D.contract(5,9);
+               int m = D.numberOfBits() - 2;
+               F = D.randomSelectInNeighbourhood(m,m,R);
+               if (!F.check_invariants()) throw E;
+               h = D.hammingDistanceTo(F);
+               if (h < m - 3 || h > m + 4) throw E;
+               if (F.getBit(0) != D.getBit(0) && F.getBit(5) != D.getBit(5)) throw E;
+               F.uncontract();
+               if (F.numberOfBits() != n) throw E;
+            }
          }
          catch (Exception e)
          {
@@ -3300,6 +4688,52 @@ public class Data implements Comparable<Data>, Iterable<Integer>
             e.printStackTrace();
             System.exit(1);
          }
+
+         try
+         {
+            // internal class combinationIterator, unrankCombination and rankCombination
+            Exception E = new Exception("internal class combinationIterator");
+            int n = min + R.nextInt(30);
+            int h = R.nextInt(Math.min(n,4) + 1);
+            Data D = new Data(n,0.5);
+            combinationIterator It = D.combinations(h);
+            if (It.size() != Data.binomial(h,n)) throw E;
+            if (It.getCurrentRank() != -1L || It.getCurrentIndices() != null) throw E;
+            HashSet<Data> circle = new HashSet<Data> ();
+            long rank = 0L;
+            while (It.hasNext())
+            {
+               Data C = It.next();
+               if (!C.check_invariants()) throw E;
+               if (C.hammingDistanceTo(D) != h) throw E;
+               if (It.getCurrentRank() != rank) throw E;
+               int[] c = It.getCurrentIndices();
+               if (Data.rankCombination(c) != rank) throw new Exception("public static long rankCombination(int[])");
+               if (!Arrays.equals(Data.unrankCombination(rank,h,n),c)) throw new Exception("public static int[] unrankCombination(long,int,int)");
+               circle.add(new Data(C));
+               rank++;
+            }
+            if (rank != It.size()) throw E;
+            if (circle.size() != It.size()) throw E;
+
+            // resuming the enumeration from a given rank
+            long r = (long) R.nextInt((int) It.size());
+            It.skipTo(r);
+            Data C = It.next();
+            if (It.getCurrentRank() != r) throw E;
+            if (!Arrays.equals(It.getCurrentIndices(),Data.unrankCombination(r,h,n))) throw E;
+            if (!circle.contains(C)) throw E;
+            It.reset();
+            if (!It.hasNext()) throw E;
+            C = It.next();
+            for (int i = 0; i < h; i++)  if (C.getBit(i) == D.getBit(i)) throw E;
+            if (C.hammingDistanceTo(D) != h) throw E;
+         }
+         catch (Exception e)
+         {
+            e.printStackTrace();
+            System.exit(1);
+         }
       }
       System.out.println("OK");
 
@@ -3473,6 +4907,41 @@ public class Data implements Comparable<Data>, Iterable<Integer>
             System.exit(1);
          }
 
+         // packed fields
+         try
+         {
+            int n = min + R.nextInt(max - min);
+            Data D = new Data(n,0.5);
+            if (R.nextBoolean())  D = new Data(new Data(3 + n,0.5),3,3 + n);
+            int offset = R.nextInt(n);
+            int width = 1 + R.nextInt(Math.min(63,n - offset));
+            long v = 0L;
+            for (int k = offset; k < offset + width; k++)  v = (v << 1) | D.getBit(k);
+            Exception E = new Exception("public long getUnsigned(int,int)");
+            if (D.getUnsigned(offset,width) != v) throw E;
+            if (D.getUnsigned(offset,width) != new Data(new Data(D),offset,offset + width).longValue()) throw E;
+            E = new Exception("public double getFraction(int,int) and public double getNormalized(int,int)");
+            Data F = new Data(D,offset,offset + width);
+            if (D.getFraction(offset,width) != F.doubleValue()) throw E;
+            if (D.getNormalized(offset,width) != F.doubleValueNormalized()) throw E;
+            if (D.getNormalized(offset,width) < 0.0 || D.getNormalized(offset,width) > 1.0) throw E;
+            E = new Exception("public static class fieldLayout");
+            int w1 = 1 + R.nextInt(Math.min(63,n));
+            int w2 = n - w1 > 0 ? 1 + R.nextInt(Math.min(63,n - w1)) : 0;
+            fieldLayout L = w2 > 0 ? new fieldLayout(w1,w2) : new fieldLayout(w1);
+            if (L.numberOfFields() != (w2 > 0 ? 2 : 1)) throw E;
+            if (L.numberOfBits() != w1 + w2) throw E;
+            if (L.offset(0) != 0 || L.width(0) != w1) throw E;
+            if (L.getUnsigned(D,0) != D.getUnsigned(0,w1)) throw E;
+            if (L.getNormalized(D,0) != D.getNormalized(0,w1)) throw E;
+            if (w2 > 0 && L.getUnsigned(D,1) != D.getUnsigned(w1,w2)) throw E;
+         }
+         catch (Exception e)
+         {
+            e.printStackTrace();
+            System.exit(1);
+         }
+
          // char
          try
          {
@@ -3561,7 +5030,24 @@ public class Data implements Comparable<Data>, Iterable<Integer>
             if (F.numberOfBits() != D.numberOfBits()) throw E;
             if (F.numberOfBytes() != F.numberOfBytes()) throw E;
             if (Data.diff(D,F).numberOfOnes() > 0) throw E;
+
+            // writeTo(Appendable) and parse
+            E = new Exception("public void writeTo(Appendable) and public static Data parse(String)");
+            StringBuilder sb = new StringBuilder();
+            D.writeTo(sb);
+            if (!sb.toString().equals(str)) throw E;
+            F = Data.parse(str);
+            if (!F.check_invariants()) throw E;
+            if (F.numberOfBits() != D.numberOfBits()) throw E;
+            if (Data.diff(D,F).numberOfOnes() > 0) throw E;
+            if (!Data.parse(" " + data + "\n").equals(F)) throw E;
+            if (!Data.parse(str.substring(0,str.indexOf(']') + 1)).equals(F)) throw E;
          }
+         Data L = new Data(20000 + R.nextInt(1000),0.5);
+         StringBuilder sb = new StringBuilder();
+         L.writeTo(sb);
+         if (!sb.toString().equals(L.toString())) throw new Exception("public void writeTo(Appendable)");
+         if (!Data.parse(sb.toString()).equals(L)) throw new Exception("public static Data parse(String)");
       }
       catch (Exception e)
       {
@@ -3607,6 +5093,73 @@ public class Data implements Comparable<Data>, Iterable<Integer>
          e.printStackTrace();
          System.exit(1);
       }
+
+      // hashCode, longHashCode, and compareTo on Data objects of same size
+      for (int itest = 0; itest < NTESTS; itest++)
+      {
+         try
+         {
+            Exception E1 = new Exception("public long longHashCode() and public int hashCode()");
+            Exception E2 = new Exception("public int compareTo (same size)");
+            int n = 3 + R.nextInt(3*max);
+            Data D1 = new Data(n,0.5);
+            Data D2 = new Data(D1);
+            if (D1.longHashCode() != D2.longHashCode()) throw E1;
+            if (D1.hashCode() != D2.hashCode()) throw E1;
+            int first = R.nextInt(n - 2);
+            D2.contract(first,first + 2);
+            if (D1.longHashCode() != D2.longHashCode()) throw E1;
+            if (!D1.equals(D2) || D1.compareTo(D2) != 0) throw E1;
+            MutableData M = new MutableData(D1);
+            int k = R.nextInt(n);
+            M.flip(k);
+            if (M.longHashCode() == D1.longHashCode()) throw E1;
+            if (M.equals(D1)) throw E1;
+            if (M.compareTo(D1) != M.getBit(k) - D1.getBit(k)) throw E2;
+            if (D1.compareTo(M) != D1.getBit(k) - M.getBit(k)) throw E2;
+            M.revert();
+            if (M.longHashCode() != D1.longHashCode()) throw E1;
+            if (!M.equals(D1)) throw E1;
+
+            // fingerprints updated in place, and fingerprints of Data objects that are not created
+            Exception E3 = new Exception("public long fingerprint() and public long fingerprintWithBitsFlipped(int...)");
+            Data C = new Data(n,0.5);
+            if (n > 10)
+            {
+               C.contract(first,first + 2 + R.nextInt(n - first - 2));
+               if (R.nextBoolean() && C.numberOfBits() > 3)  C.contract(0,2);
+            }
+            int[] bits = new int [1 + R.nextInt(4)];
+            for (int i = 0; i < bits.length; i++)  bits[i] = R.nextInt(C.numberOfBits());
+            Data N = new Data(C);
+            for (int b : bits)  N.flipBit(b);
+            if (N.fingerprint() != C.fingerprintWithBitsFlipped(bits)) throw E3;
+            Data U = new Data(N);
+            if (U.containsContractedSequences())  U.uncontract();
+            U = new Data(new Data(U,true),true);  // same bits, no cached fingerprint
+            if (U.fingerprint() != N.fingerprint()) throw E3;
+            if (!U.equals(N)) throw E3;
+            M = new MutableData(D1,R);
+            long f = M.fingerprint();
+            M.randomMoveInNeighbourhood(1,1 + R.nextInt(n));
+            Data X = Data.xor(M,D1);
+            int[] flipped = new int [X.numberOfOnes()];
+            setBitIterator It = X.setBits();
+            for (int i = 0; i < flipped.length; i++)  flipped[i] = It.nextInt();
+            if (M.fingerprint() != D1.fingerprintWithBitsFlipped(flipped)) throw E3;
+            if (new Data(new Data(M,true),true).fingerprint() != D1.fingerprintWithBitsFlipped(flipped)) throw E3;
+            M.revert();
+            if (M.fingerprint() != f) throw E3;
+            if (new Data(n,false).fingerprint() == new Data(n + 1,false).fingerprint()) throw E3;
+            Data V = C.randomSelectInNeighbourhood(1,1 + R.nextInt(C.length()),R);
+            if (new Data(new Data(V,true),true).fingerprint() != V.fingerprint()) throw E3;
+         }
+         catch (Exception e)
+         {
+            e.printStackTrace();
+            System.exit(1);
+         }
+      }
       System.out.println("OK");
 
       // ending
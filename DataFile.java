@@ -0,0 +1,367 @@
+
+/* DataFile class
+ *
+ * binMeta project
+ *
+ * A file of Data objects in binary encoding (see the method 'writeTo' in the Data class).
+ * The Data objects are appended through a buffered FileChannel, and they are read back
+ * through a MappedByteBuffer, without parsing any text.
+ *
+ * The iterators keep the file open until the end of the iteration: an iteration that is abandoned before its
+ * end needs to be closed, either through the iterator (it is AutoCloseable) or through the DataFile object.
+ *
+ * File format: one int (the 'magic' number) followed by the records; every record is an int
+ * (the number of bytes in the encoding) followed by the binary encoding of one Data object.
+ *
+ * last update: October 18, 2026
+ *
+ * AM
+ */
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+public class DataFile implements Iterable<Data>
+{
+   private static final int magic = 0x62696E4D;  // first int in the file ("binM")
+   private static final int window = 1 << 30;  // maximum size of the mapped regions of the file (in bytes)
+   private File file;  // the file
+   private FileChannel channel;  // channel for appending Data objects (null until the first call to 'append')
+   private ByteBuffer buffer;  // write buffer
+   private ArrayList<dataFileIterator> iterators;  // the iterators that still have their file open
+
+   // DataFile constructor: the file is created (or extended, if it already exists) when Data objects are appended
+   public DataFile(String filename)
+   {
+      try
+      {
+         if (filename == null) throw new Exception("DataFile: the file name is null");
+         this.file = new File(filename);
+         if (this.file.isDirectory()) throw new Exception("DataFile: \"" + filename + "\" is a directory");
+         this.channel = null;
+         this.buffer = ByteBuffer.allocate(1 << 16);
+         this.iterators = new ArrayList<dataFileIterator> ();
+      }
+      catch (Exception e)
+      {
+         e.printStackTrace();
+         System.exit(1);
+      }
+   }
+
+   // Gives the name of the file
+   public String getName()
+   {
+      return this.file.getPath();
+   }
+
+   // Appends a Data object at the end of the file
+   // - the Data object is written in the write buffer, the buffer is written in the file when full
+   public void append(Data D)
+   {
+      try
+      {
+         if (D == null) throw new Exception("DataFile: the Data object is null");
+         if (this.channel == null)
+         {
+            this.channel = FileChannel.open(this.file.toPath(),StandardOpenOption.CREATE,StandardOpenOption.WRITE,StandardOpenOption.APPEND);
+            if (this.channel.size() == 0)  this.buffer.putInt(DataFile.magic);
+         }
+         int nbytes = D.numberOfSerializedBytes();
+         if (this.buffer.remaining() < 4 + nbytes)  this.flush();
+         if (this.buffer.capacity() < 4 + nbytes)  this.buffer = ByteBuffer.allocate(4 + nbytes);
+         this.buffer.putInt(nbytes);
+         D.writeTo(this.buffer);
+      }
+      catch (Exception e)
+      {
+         e.printStackTrace();
+         System.exit(1);
+      }
+   }
+
+   // Writes the content of the write buffer in the file
+   public void flush()
+   {
+      if (this.channel == null)  return;
+      try
+      {
+         this.buffer.flip();
+         while (this.buffer.hasRemaining())  this.channel.write(this.buffer);
+         this.buffer.clear();
+      }
+      catch (Exception e)
+      {
+         e.printStackTrace();
+         System.exit(1);
+      }
+   }
+
+   // Writes the content of the write buffer in the file, and closes the file
+   // - the iterators that were not run until the end are closed as well
+   // - Data objects can still be appended afterwards (the file is then reopened)
+   public void close()
+   {
+      while (!this.iterators.isEmpty())  this.iterators.get(this.iterators.size() - 1).close();
+      if (this.channel == null)  return;
+      try
+      {
+         this.flush();
+         this.channel.close();
+         this.channel = null;
+      }
+      catch (Exception e)
+      {
+         e.printStackTrace();
+         System.exit(1);
+      }
+   }
+
+   @Override
+   // Gives a dataFileIterator on the Data objects in the file
+   // - only the Data objects that were already written in the file are read (see 'flush')
+   public dataFileIterator iterator()
+   {
+      return new dataFileIterator(this.file);
+   }
+
+   // class dataFileIterator
+   // - the file is closed at the end of the iteration, or when 'close' is invoked
+   public class dataFileIterator implements Iterator<Data>, AutoCloseable
+   {
+      // dataFileIterator attributes
+      private FileChannel channel;  // read-only channel (null when the iteration is over)
+      private long size;  // size of the file (in bytes)
+      private long position;  // position in the file of the next record
+      private MappedByteBuffer map;  // currently mapped region of the file
+      private long start;  // position in the file of the mapped region
+
+      // dataFileIterator constructor
+      private dataFileIterator(File file)
+      {
+         try
+         {
+            this.channel = null;
+            this.size = 0L;
+            this.position = 0L;
+            this.map = null;
+            this.start = 0L;
+            if (file.exists())
+            {
+               this.channel = FileChannel.open(file.toPath(),StandardOpenOption.READ);
+               DataFile.this.iterators.add(this);
+               this.size = this.channel.size();
+               if (this.size > 0)
+               {
+                  this.map(4);
+                  if (this.map.getInt(0) != DataFile.magic) throw new Exception("DataFile: \"" + file.getPath() + "\" is not a file of Data objects");
+                  this.position = 4L;
+               }
+               if (!this.hasNext())  this.close();
+            }
+         }
+         catch (Exception e)
+         {
+            e.printStackTrace();
+            System.exit(1);
+         }
+      }
+
+      // hasNext (false after the iterator was closed)
+      @Override
+      public boolean hasNext()
+      {
+         return this.channel != null && this.position < this.size;
+      }
+
+      // next (the Data objects are decoded directly from the mapped region of the file)
+      @Override
+      public Data next()
+      {
+         if (!this.hasNext())  throw new NoSuchElementException();
+         Data D = null;
+         try
+         {
+            this.map(4);
+            int nbytes = this.map.getInt((int) (this.position - this.start));
+            if (nbytes <= 0 || this.position + 4 + nbytes > this.size) throw new Exception("DataFile: corrupted record at position " + this.position);
+            this.map(4 + nbytes);
+            this.map.position((int) (this.position - this.start + 4));
+            D = Data.readFrom(this.map);
+            if (this.map.position() != (int) (this.position - this.start + 4 + nbytes)) throw new Exception("DataFile: corrupted record at position " + this.position);
+            this.position = this.position + 4 + nbytes;
+            if (!this.hasNext())  this.close();
+         }
+         catch (Exception e)
+         {
+            e.printStackTrace();
+            System.exit(1);
+         }
+         return D;
+      }
+
+      // Maps the region of the file starting at the current position, if the next nbytes are not already mapped (private method)
+      private void map(int nbytes) throws Exception
+      {
+         if (this.map != null && this.position + nbytes <= this.start + this.map.limit())  return;
+         this.start = this.position;
+         long length = Math.min(this.size - this.start,Math.max((long) nbytes,(long) DataFile.window));
+         this.map = this.channel.map(FileChannel.MapMode.READ_ONLY,this.start,length);
+      }
+
+      // Closes the file (the iteration is over)
+      @Override
+      public void close()
+      {
+         if (this.channel == null)  return;
+         try
+         {
+            DataFile.this.iterators.remove(this);
+            this.channel.close();
+            this.channel = null;
+            this.map = null;
+         }
+         catch (Exception e)
+         {
+            e.printStackTrace();
+            System.exit(1);
+         }
+      }
+   }
+
+   // main
+   public static void main(String[] args)
+   {
+      System.out.println("DataFile class\n");
+      int NTESTS = 200;
+      int min = 2;
+      int max = 200;
+      long seed = 0;
+      Random R = new Random();
+      if (args != null && args.length > 0)
+         seed = Long.parseLong(args[0]);
+      else
+         seed = Math.abs(R.nextLong());
+      System.out.println("Random seed set to : " + seed);
+      R = new Random(seed);
+
+      // writeTo and readFrom (Data class)
+      System.out.print("Testing binary encoding of Data objects ... ");
+      for (int itest = 0; itest < 50*NTESTS; itest++)
+      {
+         try
+         {
+            Exception E = new Exception("public void writeTo(ByteBuffer) and public static Data readFrom(ByteBuffer)");
+            int n = min + R.nextInt(max - min);
+            Data D = new Data(n,0.5);
+            if (n > 10 && R.nextBoolean())
+            {
+               D = new Data(new Data(3 + n,0.5),3,3 + n);  // view
+               D.contract(1,3 + R.nextInt(n/2));
+               if (R.nextBoolean())  D.contract(0,3);  // nested
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(D.numberOfSerializedBytes() + 7);
+            buffer.position(7);
+            D.writeTo(buffer);
+            if (buffer.hasRemaining()) throw E;
+            buffer.position(7);
+            Data F = Data.readFrom(buffer);
+            if (buffer.hasRemaining()) throw E;
+            if (!F.check_invariants()) throw E;
+            if (F.numberOfBits() != D.numberOfBits()) throw E;
+            if (F.containsContractedSequences() != D.containsContractedSequences()) throw E;
+            if (F.length() != D.length()) throw E;
+            if (!F.equals(D)) throw E;
+            if (D.containsContractedSequences())
+            {
+               F.uncontract();
+               D.uncontract();
+               if (!F.equals(D)) throw E;
+            }
+         }
+         catch (Exception e)
+         {
+            e.printStackTrace();
+            System.exit(1);
+         }
+      }
+      System.out.println("OK");
+
+      // append, close and iterator
+      System.out.print("Testing append, close and iterator ... ");
+      for (int itest = 0; itest < NTESTS; itest++)
+      {
+         File tmp = null;
+         try
+         {
+            Exception E = new Exception("public void append(Data) and public dataFileIterator iterator()");
+            tmp = File.createTempFile("binMeta",".data");
+            tmp.delete();
+            DataFile DF = new DataFile(tmp.getPath());
+            if (DF.iterator().hasNext()) throw E;
+            int ndata = 1 + R.nextInt(500);
+            Data[] written = new Data[ndata];
+            for (int i = 0; i < ndata; i++)
+            {
+               int n = min + R.nextInt(i%50 == 0 ? 100*max : max);
+               written[i] = new Data(n,0.5);
+               if (n > 10 && R.nextBoolean())  written[i].contract(2,5);
+               DF.append(written[i]);
+               if (i == ndata/2)  DF.close();  // the file is reopened with the next append
+            }
+            DF.close();
+            int i = 0;
+            for (Data D : new DataFile(tmp.getPath()))
+            {
+               if (i >= ndata) throw E;
+               if (!D.equals(written[i])) throw E;
+               if (D.numberOfBits() != written[i].numberOfBits()) throw E;
+               i++;
+            }
+            if (i != ndata) throw E;
+
+            // abandoned iterations: closed through the iterator, or through the DataFile object
+            DataFile DR = new DataFile(tmp.getPath());
+            int half = ndata/2;
+            try (dataFileIterator it = DR.iterator())
+            {
+               for (int k = 0; k < half; k++)  if (!it.next().equals(written[k])) throw E;
+               if (!it.hasNext()) throw E;
+               it.close();
+               if (it.hasNext() || !DR.iterators.isEmpty()) throw E;
+            }
+            dataFileIterator it1 = DR.iterator();
+            dataFileIterator it2 = DR.iterator();
+            for (Data D : DR)
+            {
+               if (!D.equals(written[0])) throw E;
+               break;
+            }
+            if (it1.next() == null || DR.iterators.size() != (ndata > 1 ? 3 : 1)) throw E;
+            DR.close();
+            if (it1.hasNext() || it2.hasNext() || !DR.iterators.isEmpty()) throw E;
+         }
+         catch (Exception e)
+         {
+            e.printStackTrace();
+            System.exit(1);
+         }
+         finally
+         {
+            if (tmp != null)  tmp.delete();
+         }
+      }
+      System.out.println("OK");
+
+      // ending
+      System.out.println();
+   }
+}
+
@@ -0,0 +1,48 @@
+
+/* EvictionPolicy interface
+ *
+ * binMeta project
+ *
+ * An eviction policy selects the "victim" entry to be replaced when a Memory object is full.
+ * The Memory object notifies its policy of every event on its entries (load, access, removal and
+ * exchange of positions), so that the policy can keep its own structures up to date, and give the
+ * victim without scanning the whole Memory. Every notification is supposed to take O(1) time.
+ *
+ * Every policy object can be attached to one Memory object only.
+ *
+ * last update: October 18, 2026
+ *
+ * AM
+ */
+
+public interface EvictionPolicy
+{
+   // getter for the policy name
+   public String getName();
+
+   // attach: the policy is attached to a Memory object (it is invoked by the Memory constructor)
+   public void attach(Memory M);
+
+   // loaded: a new Data entry was loaded at position i
+   public void loaded(int i);
+
+   // accessed: the Data entry at position i was accessed (read, or modified via its value or its parameters)
+   public void accessed(int i);
+
+   // removed: the Data entry at position i was removed (or it is going to be replaced by a new entry)
+   public void removed(int i);
+
+   // exchanged: the Data entries at positions i and j exchanged their positions (one of the two positions may be empty)
+   public void exchanged(int i,int j);
+
+   // victim: gives the position of the entry to be replaced (it is invoked when the Memory object is full)
+   public int victim();
+
+   // victim: gives the position of the entry to be replaced by a new Data object having the given value
+   // -> by default, the new Data object is not taken into consideration
+   public default int victim(Data data,double value)
+   {
+      return this.victim();
+   }
+}
+
@@ -3,7 +3,7 @@
  *
  * binMeta project
  *
- * last update: April 16, 2023
+ * last update: October 18, 2026
  *
  * AM
  */
@@ -79,14 +79,11 @@ public class Fermat implements Objective
       }
 
       // objective evaluation: it computes | z^exp - x^exp - y^exp |
-      Data x = new Data(D,0,this.ndigits);
-      Data y = new Data(D,this.ndigits,2*this.ndigits);
-      Data z = new Data(D,2*this.ndigits,3*this.ndigits);
-      long lx = 1L + x.posLongValue();
+      long lx = 2L + D.getUnsigned(0,this.ndigits);
       double xx = 1.0;  for (int k = 0; k < this.exp; k++)  xx = lx*xx;
-      long ly = lx + y.longValue();
+      long ly = lx + D.getUnsigned(this.ndigits,this.ndigits);
       double yy = 1.0;  for (int k = 0; k < this.exp; k++)  yy = ly*yy;
-      long lz = ly + z.longValue();
+      long lz = ly + D.getUnsigned(2*this.ndigits,this.ndigits);
       double zz = 1.0;  for (int k = 0; k < this.exp; k++)  zz = lz*zz;
 
       return Math.abs(zz - xx - yy);
@@ -108,14 +105,11 @@ public class Fermat implements Objective
       }
 
       // writing down the equation
-      Data x = new Data(D,0,this.ndigits);
-      Data y = new Data(D,this.ndigits,2*this.ndigits);
-      Data z = new Data(D,2*this.ndigits,3*this.ndigits);
-      long lx = 1L + x.posLongValue();
+      long lx = 2L + D.getUnsigned(0,this.ndigits);
       String left = lx + "^" + this.exp + " + ";
-      long ly = lx + y.longValue();
+      long ly = lx + D.getUnsigned(this.ndigits,this.ndigits);
       left = left + ly + "^" + this.exp;
-      long lz = ly + z.longValue();
+      long lz = ly + D.getUnsigned(2*this.ndigits,this.ndigits);
       String right = lz + "^" + this.exp;
 
       // evaluation of the equation (optional)
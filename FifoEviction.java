@@ -0,0 +1,145 @@
+
+/* FifoEviction class
+ *
+ * binMeta project
+ *
+ * First-In First-Out eviction policy: the victim is the entry that is in Memory since longer time.
+ * The entries are kept in a doubly-linked list sorted by load time (the list is intrusive: it consists of
+ * two arrays indexed by the positions in Memory), so that every notification and the victim take O(1) time.
+ *
+ * last update: October 18, 2026
+ *
+ * AM
+ */
+
+import java.util.Arrays;
+
+public class FifoEviction implements EvictionPolicy
+{
+   protected Memory M;  // the Memory object the policy is attached to
+   protected int[] older;  // the previous (older) entry in the list, or -1
+   protected int[] newer;  // the next (newer) entry in the list, or -1
+   protected int oldest;  // first entry in the list (-1 when the list is empty)
+   protected int newest;  // last entry in the list (-1 when the list is empty)
+
+   // FifoEviction constructor
+   public FifoEviction()
+   {
+      this.M = null;
+   }
+
+   // getName
+   @Override
+   public String getName()
+   {
+      return "FIFO";
+   }
+
+   // attach
+   @Override
+   public void attach(Memory M)
+   {
+      try
+      {
+         if (M == null) throw new Exception("FifoEviction: the Memory object is null");
+         if (this.M != null) throw new Exception("FifoEviction: the policy is already attached to another Memory object");
+      }
+      catch (Exception e)
+      {
+         e.printStackTrace();
+         System.exit(1);
+      }
+
+      this.M = M;
+      this.older = new int [M.getCapacity()];
+      this.newer = new int [M.getCapacity()];
+      Arrays.fill(this.older,-1);
+      Arrays.fill(this.newer,-1);
+      this.oldest = -1;
+      this.newest = -1;
+   }
+
+   // loaded (the new entry is placed at the end of the list)
+   @Override
+   public void loaded(int i)
+   {
+      this.older[i] = this.newest;
+      this.newer[i] = -1;
+      if (this.newest != -1)
+         this.newer[this.newest] = i;
+      else
+         this.oldest = i;
+      this.newest = i;
+   }
+
+   // accessed (nothing to do: the load time does not change)
+   @Override
+   public void accessed(int i)
+   {
+   }
+
+   // removed (the entry is unlinked from the list)
+   @Override
+   public void removed(int i)
+   {
+      int o = this.older[i];
+      int w = this.newer[i];
+      if (o != -1)
+         this.newer[o] = w;
+      else
+         this.oldest = w;
+      if (w != -1)
+         this.older[w] = o;
+      else
+         this.newest = o;
+      this.older[i] = -1;
+      this.newer[i] = -1;
+   }
+
+   // exchanged (every reference to i becomes a reference to j, and viceversa)
+   @Override
+   public void exchanged(int i,int j)
+   {
+      boolean li = this.isLinked(i);
+      boolean lj = this.isLinked(j);
+      int oi = this.older[i];  int ni = this.newer[i];
+      int oj = this.older[j];  int nj = this.newer[j];
+      this.older[i] = oj == i ? j : oj;  this.newer[i] = nj == i ? j : nj;
+      this.older[j] = oi == j ? i : oi;  this.newer[j] = ni == j ? i : ni;
+      this.relink(i,lj);
+      this.relink(j,li);
+   }
+
+   // victim (the first entry in the list; it is defined as soon as the Memory is not empty)
+   @Override
+   public int victim()
+   {
+      return this.oldest;
+   }
+
+   // isLinked (private): verifies whether position i is in the list
+   private boolean isLinked(int i)
+   {
+      return this.oldest == i || this.older[i] != -1;
+   }
+
+   // relink (private): it updates the neighbours of position i after an exchange (or it clears position i when not in the list)
+   private void relink(int i,boolean linked)
+   {
+      if (!linked)
+      {
+         this.older[i] = -1;
+         this.newer[i] = -1;
+         return;
+      }
+      if (this.older[i] != -1)
+         this.newer[this.older[i]] = i;
+      else
+         this.oldest = i;
+      if (this.newer[i] != -1)
+         this.older[this.newer[i]] = i;
+      else
+         this.newest = i;
+   }
+}
+
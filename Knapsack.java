@@ -7,7 +7,7 @@
  * - initial version coded by Alban Gutierrez Andre (M1 Info 2020-21) and Safietou Diallo (M1 Miage 2020-21)
  * - constructors rewritten (automatic generation)
  *
- * last update: April 21, 2023
+ * last update: October 18, 2026
  *
  * AM
  */
@@ -15,7 +15,6 @@
 import java.util.Collections;
 import java.util.List;
 import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.Random;
 
 public class Knapsack implements Objective
@@ -159,19 +158,17 @@ public class Knapsack implements Objective
          System.exit(1);
       }
 
-      // preparing variables and iterators
+      // computing the sums of the values and of the weights for the selected elements
+      // - only the bits set to 1 are visited
       double sumValues = 0.0;
       double sumWeights = 0.0;
-      Data.bitIterator ItData = D.iterator();
-      Iterator<Double> ItValue = this.listOfValues.iterator();
-      Iterator<Double> ItWeight = this.listOfWeights.iterator();
-
-      // computing the sum of the values for the selected elements
-      while (ItData.hasNext() && ItValue.hasNext())  sumValues = sumValues + ItData.next()*ItValue.next();
-      ItData.reset(); 
-
-      // computing the sum of the weights for the selected elements
-      while (ItData.hasNext() && ItWeight.hasNext())  sumWeights = sumWeights + ItData.next()*ItWeight.next();
+      Data.setBitIterator ItData = D.setBits();
+      while (ItData.hasNext())
+      {
+         int i = ItData.nextInt();
+         sumValues = sumValues + this.listOfValues.get(i);
+         sumWeights = sumWeights + this.listOfWeights.get(i);
+      }
 
       // the constraint on the maximum weight is in the objective function
       double objvalue = 0.0;
@@ -3,15 +3,11 @@
  *
  * binMeta project
  *
- * last update: April 24, 2023
+ * last update: October 18, 2026
  *
  * AM
  */
 
-import java.util.Collections;
-import java.util.ArrayList;
-import java.util.TreeSet;
-
 public class LocalOpt extends binMeta
 {
    // LocalOpt constructor
@@ -42,59 +38,56 @@ public class LocalOpt extends binMeta
    public void optimize()
    {
       long startime = System.currentTimeMillis();
-      Data D = new Data(this.solution);
+      MutableData D = new MutableData(this.solution);  // the gradient is computed by flipping the bits in place
       int n = D.numberOfBits();
+      double[] g = new double [n];  // -Double.MAX_VALUE for bits not giving any improvement
       double value = this.objValue;
 
       // main loop
       do
       {
          // preserving current solution
-         this.solution = new Data(D);
+         this.solution = D.freeze();
          this.objValue = value;
 
          // gradient computation
-         TreeSet<Integer> indices = new TreeSet<Integer> ();
-         ArrayList<Double> g = new ArrayList<Double> (n);
-         Data.bitIterator It = D.iterator();
-         int i = 0;
-         while (It.hasNext())
+         int nindices = 0;
+         for (int i = 0; i < n; i++)
          {
-            double gvalue = this.obj.value(It.withNextBitFlipped()) - value;
+            D.flip(i);
+            double gvalue = this.obj.value(D) - value;
+            D.revert();
             if (gvalue < 0.0)
             {
-               indices.add(i);
-               g.add(gvalue);
+               nindices++;
+               g[i] = gvalue;
             }
-            else  g.add(-Double.MAX_VALUE);
-            i++;
+            else  g[i] = -Double.MAX_VALUE;
          }
 
          // performing full step along the opposite gradient direction
-         if (!indices.isEmpty() && System.currentTimeMillis() - startime < this.maxTime)
+         if (nindices > 0 && System.currentTimeMillis() - startime < this.maxTime)
          {
-            Data G = new Data(n,indices);
-            Data E = Data.diff(D,G);
-            value = this.obj.value(E);
+            for (int i = 0; i < n; i++)  if (g[i] != -Double.MAX_VALUE)  D.flip(i);
+            value = this.obj.value(D);
 
             // if it is necessary to perform a partial step to get an improvement
-            while (value >= this.objValue && !indices.isEmpty() && System.currentTimeMillis() - startime < this.maxTime)
+            while (value >= this.objValue && nindices > 0 && System.currentTimeMillis() - startime < this.maxTime)
             {
                // remove the current largest g value (the less important)
-               int k = g.indexOf(Collections.max(g));
-               g.set(k,-Double.MAX_VALUE);
-               indices.remove(k);
-               G = new Data(n,indices);
-               E = Data.diff(D,G);
+               int k = 0;
+               for (int i = 1; i < n; i++)  if (g[i] > g[k])  k = i;
+               g[k] = -Double.MAX_VALUE;
+               nindices--;
+               D.flip(k);
                if (System.currentTimeMillis() - startime < this.maxTime)  break;
-               value = this.obj.value(E);
+               value = this.obj.value(D);
             }
 
-            // saving the best solution in D
-            D = E;
+            // the best solution is saved in D
+            D.commit();
          }
       }
       while (System.currentTimeMillis() - startime < this.maxTime && value < this.objValue);
    }
 }
-
@@ -0,0 +1,39 @@
+
+/* LruEviction class
+ *
+ * binMeta project
+ *
+ * Least Recently Used eviction policy: the victim is the entry that was not accessed since longer time.
+ * The entries are kept in the same intrusive list used by the FIFO policy, where every accessed entry
+ * is moved at the end of the list (O(1) time per access).
+ *
+ * last update: October 18, 2026
+ *
+ * AM
+ */
+
+public class LruEviction extends FifoEviction
+{
+   // LruEviction constructor
+   public LruEviction()
+   {
+      super();
+   }
+
+   // getName
+   @Override
+   public String getName()
+   {
+      return "LRU";
+   }
+
+   // accessed (the entry is moved at the end of the list)
+   @Override
+   public void accessed(int i)
+   {
+      if (this.newest == i)  return;
+      this.removed(i);
+      this.loaded(i);
+   }
+}
+
@@ -5,12 +5,14 @@
  *
  * the current version was partially revisited by Charly Colombu (M2 Miage 2020-21)
  *
- * last update: June 30, 2021
+ * last update: October 18, 2026
  *
  * AM
  */
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.Random;
 
 public class Memory
@@ -19,13 +21,16 @@ public class Memory
    private int capacity;  // Memory capacity
    private Data[] data;  // Data objects
    private Double[] value;  // objective function values for Data objects
-   private String method;  // name of the method used to select "victim" entries
-   private int nIntParam; // number of additional (internal) parameters
+   private EvictionPolicy policy;  // the policy used to select "victim" entries
    private int nExtParam;  // number of additional (extra) parameters
    private Object[][] param;  // additional parameters
+   private int[] index;  // hash index: open-addressing table (linear probing) containing 1 + the position of every Data entry (0 for empty cells)
+   private ValueHeap worst;  // indexed binary heap on the values, with the worst entry on top
+   private ValueHeap best;  // indexed binary heap on the values, with the best entry on top
 
    // Memory constructor
-   public Memory(int capacity,String method,int nExtraParam)
+   // -> the policy object is attached to this Memory object (it cannot be shared with other Memory objects)
+   public Memory(int capacity,EvictionPolicy policy,int nExtraParam)
    {
       try
       {
@@ -40,36 +45,45 @@ public class Memory
          this.value = new Double[this.capacity];
          if (this.value == null) throw new Exception("Not enough memory resources for Memory object");
          for (int i = 0; i < this.capacity; i++)  this.value[i] = null;
-         if (method == null) throw new Exception("String containing method for 'victim' selection is null");
-         if (method.length() == 0) throw new Exception("String containing method for 'victim' selection is empty");
-         this.method = "FIFO";
-         if (!method.equalsIgnoreCase("FIFO"))  // First-In First-Out
-         {
-            if (method.equalsIgnoreCase("LRU"))  // Least Recently Used
-               this.method = "LRU";
-            else if (method.equalsIgnoreCase("WO"))  // Worst-Out
-               this.method = "WO";
-            else throw new Exception("Unknown method for 'victim' selection : " + method);
-         }
-         if (this.method.equals("FIFO") || this.method.equals("LRU"))  this.nIntParam = 1;  // contains either load time or access time
+         if (policy == null) throw new Exception("Policy for 'victim' selection is null");
          if (nExtraParam < 0) throw new Exception("Specified number of extra parameters for Memory object is negative");
          this.nExtParam = nExtraParam;
          this.param = null;
-         if (this.nIntParam + this.nExtParam > 0)
+         if (this.nExtParam > 0)
          {
-            this.param = new Object[this.capacity][this.nIntParam + this.nExtParam];
+            this.param = new Object[this.capacity][this.nExtParam];
             if (this.param == null) throw new Exception("Not enough memory resources for Memory object");
             for (int i = 0; i < this.capacity; i++)
             {
-               for (int j = 0; j < this.nIntParam + this.nExtParam; j++)  this.param[i][j] = null;
+               for (int j = 0; j < this.nExtParam; j++)  this.param[i][j] = null;
             }
          }
+         int cells = 2;
+         while (cells < 2*this.capacity)  cells = cells << 1;  // the table is at most half full
+         this.index = new int [cells];
+         this.worst = new ValueHeap(1);
+         this.best = new ValueHeap(-1);
       }
       catch (Exception e)
       {
          e.printStackTrace();
          System.exit(1);
       }
+      this.policy = policy;
+      this.policy.attach(this);
+   }
+
+   // Memory constructor
+   public Memory(int capacity,EvictionPolicy policy)
+   {
+      this(capacity,policy,0);
+   }
+
+   // Memory constructor
+   // -> the method for 'victim' selection is given by its name: "FIFO", "LRU", "WO", "CLOCK", "TOURNAMENT", "AWO" or "CROWDING"
+   public Memory(int capacity,String method,int nExtraParam)
+   {
+      this(capacity,Memory.policyNamed(method),nExtraParam);
    }
 
    // Memory constructor
@@ -90,6 +104,39 @@ public class Memory
       this(capacity,0);
    }
 
+   // policyNamed (private)
+   // -> it creates a new eviction policy (with default settings) from its name
+   private static EvictionPolicy policyNamed(String method)
+   {
+      EvictionPolicy policy = null;
+      try
+      {
+         if (method == null) throw new Exception("String containing method for 'victim' selection is null");
+         if (method.length() == 0) throw new Exception("String containing method for 'victim' selection is empty");
+         if (method.equalsIgnoreCase("FIFO"))  // First-In First-Out
+            policy = new FifoEviction();
+         else if (method.equalsIgnoreCase("LRU"))  // Least Recently Used
+            policy = new LruEviction();
+         else if (method.equalsIgnoreCase("WO"))  // Worst-Out
+            policy = new WorstOutEviction();
+         else if (method.equalsIgnoreCase("CLOCK"))  // CLOCK (second chance)
+            policy = new ClockEviction();
+         else if (method.equalsIgnoreCase("TOURNAMENT"))  // random-k tournament on the worst value
+            policy = new TournamentEviction();
+         else if (method.equalsIgnoreCase("AWO"))  // age-weighted Worst-Out
+            policy = new AgedWorstOutEviction();
+         else if (method.equalsIgnoreCase("CROWDING"))  // the nearest entry if it is worse, the worst entry otherwise
+            policy = new CrowdingEviction();
+         else throw new Exception("Unknown method for 'victim' selection : " + method);
+      }
+      catch (Exception e)
+      {
+         e.printStackTrace();
+         System.exit(1);
+      }
+      return policy;
+   }
+
    // getCapacity
    public int getCapacity()
    {
@@ -102,6 +149,12 @@ public class Memory
       return this.n;
    }
 
+   // getPolicy
+   public EvictionPolicy getPolicy()
+   {
+      return this.policy;
+   }
+
    // isEmpty
    public boolean isEmpty()
    {
@@ -137,39 +190,209 @@ public class Memory
    // contains
    public boolean contains(Data data)
    {
-      if (data == null)  return false;
-      int i = 0;
-      int n = 0;
-      boolean present = false;
-      while (!present && n < this.n && i < this.capacity)
+      return this.indexOf(data) != -1;
+   }
+
+   // indexOf (gives -1 if the Data object is not contained in Memory)
+   // -> the position is found through the hash index, in O(1) expected time
+   public int indexOf(Data data)
+   {
+      if (data == null)  return -1;
+      int c = this.indexCell(data);
+      return this.index[c] - 1;
+   }
+
+   // indexCell (private)
+   // -> the cell of the hash index containing the Data object, or the empty cell where it can be inserted
+   // -> the cached 64-bit hashes discard most entries without comparing the bits
+   private int indexCell(Data data)
+   {
+      int mask = this.index.length - 1;
+      long h = data.longHashCode();
+      int c = (int) h & mask;
+      while (this.index[c] != 0)
       {
-         if (this.data[i] != null)
+         Data D = this.data[this.index[c] - 1];
+         if (D.longHashCode() == h && D.equals(data))  return c;
+         c = (c + 1) & mask;
+      }
+      return c;
+   }
+
+   // indexInsert (private)
+   // -> it includes in the hash index the Data entry at position i
+   private void indexInsert(int i)
+   {
+      this.index[this.indexCell(this.data[i])] = i + 1;
+   }
+
+   // indexRemove (private)
+   // -> it removes from the hash index the Data entry at position i (the Data entry itself is not modified)
+   // -> the following entries of the probe sequence are shifted backwards, so that no "deleted" markers are needed
+   private void indexRemove(int i)
+   {
+      int mask = this.index.length - 1;
+      int hole = this.indexCell(this.data[i]);
+      int c = (hole + 1) & mask;
+      while (this.index[c] != 0)
+      {
+         int home = (int) this.data[this.index[c] - 1].longHashCode() & mask;
+         if (((c - home) & mask) >= ((c - hole) & mask))
          {
-            if (this.data[i].equals(data))  present = true;
-            n++;
+            this.index[hole] = this.index[c];
+            hole = c;
          }
-         i++;
+         c = (c + 1) & mask;
       }
-      return present;
+      this.index[hole] = 0;
    }
 
-   // indexOf (gives -1 if the Data object is not contained in Memory)
-   public int indexOf(Data data)
+   // release (private)
+   // -> it removes the Data entry at position i from the hash index and the heaps, and notifies the policy (the Data entry itself is not modified)
+   private void release(int i)
    {
-      if (data == null)  return -1;
-      int i = 0;
-      int n = 0;
-      int index = -1;
-      while (index == -1 && n < this.n && i < this.capacity)
+      this.indexRemove(i);
+      this.worst.remove(i);
+      this.best.remove(i);
+      this.policy.removed(i);
+   }
+
+   // exchange (private)
+   // -> it exchanges the positions i and j of two Data entries (one of the two positions may be empty)
+   // -> the hash index and the heaps are updated, and the policy is notified (the extra parameters are not exchanged)
+   private void exchange(int i,int j)
+   {
+      // hash index
+      int ci = this.data[i] != null ? this.indexCell(this.data[i]) : -1;
+      int cj = this.data[j] != null ? this.indexCell(this.data[j]) : -1;
+      if (ci != -1)  this.index[ci] = j + 1;
+      if (cj != -1)  this.index[cj] = i + 1;
+
+      // Data entries and values
+      Data D = this.data[i];  this.data[i] = this.data[j];  this.data[j] = D;
+      Double v = this.value[i];  this.value[i] = this.value[j];  this.value[j] = v;
+
+      // heaps and policy
+      this.worst.exchange(i,j);
+      this.best.exchange(i,j);
+      this.policy.exchanged(i,j);
+   }
+
+   // ValueHeap (private inner class)
+   // -> indexed binary heap containing the positions of the Data entries, ordered by value: the top is either
+   //    the worst entry (largest value) or the best entry (smallest value); ties are broken by the smallest position
+   // -> the place in the heap of every position is stored, so that any entry can be updated or removed in O(log n)
+   private class ValueHeap
+   {
+      private int sign;  // 1 for the worst entry on top, -1 for the best entry on top
+      private int size;  // number of entries in the heap
+      private int[] heap;  // the positions of the Data entries
+      private int[] place;  // place in the heap of every position (-1 when the position is not in the heap)
+
+      // ValueHeap constructor
+      private ValueHeap(int sign)
       {
-         if (this.data[i] != null)
+         this.sign = sign;
+         this.size = 0;
+         this.heap = new int [Memory.this.capacity];
+         this.place = new int [Memory.this.capacity];
+         Arrays.fill(this.place,-1);
+      }
+
+      // top (gives -1 when the heap is empty)
+      private int top()
+      {
+         if (this.size == 0)  return -1;
+         return this.heap[0];
+      }
+
+      // above: verifies whether the entry at position i must be above the entry at position j
+      private boolean above(int i,int j)
+      {
+         int c = this.sign*Double.compare(Memory.this.value[i],Memory.this.value[j]);
+         return c > 0 || (c == 0 && i < j);
+      }
+
+      // insert
+      private void insert(int i)
+      {
+         this.heap[this.size] = i;
+         this.place[i] = this.size;
+         this.size++;
+         this.siftUp(this.place[i]);
+      }
+
+      // remove (nothing is done when position i is not in the heap)
+      private void remove(int i)
+      {
+         int k = this.place[i];
+         if (k == -1)  return;
+         this.place[i] = -1;
+         this.size--;
+         if (k == this.size)  return;
+         int last = this.heap[this.size];
+         this.heap[k] = last;
+         this.place[last] = k;
+         this.update(last);
+      }
+
+      // update: it restores the heap after a change of value for the entry at position i
+      private void update(int i)
+      {
+         int k = this.place[i];
+         if (k == -1)  return;
+         this.siftUp(k);
+         this.siftDown(this.place[i]);
+      }
+
+      // exchange: positions i and j exchange their entries (one of the two positions may be empty)
+      private void exchange(int i,int j)
+      {
+         int ki = this.place[i];
+         int kj = this.place[j];
+         this.place[i] = kj;
+         this.place[j] = ki;
+         if (kj != -1)  this.heap[kj] = i;
+         if (ki != -1)  this.heap[ki] = j;
+         this.update(i);  // ties may now be broken differently
+         this.update(j);
+      }
+
+      // siftUp
+      private void siftUp(int k)
+      {
+         int i = this.heap[k];
+         while (k > 0)
          {
-            if (this.data[i].equals(data))  index = i;
-            n++;
+            int parent = (k - 1) >>> 1;
+            int p = this.heap[parent];
+            if (!this.above(i,p))  break;
+            this.heap[k] = p;
+            this.place[p] = k;
+            k = parent;
          }
-         i++;
+         this.heap[k] = i;
+         this.place[i] = k;
+      }
+
+      // siftDown
+      private void siftDown(int k)
+      {
+         int i = this.heap[k];
+         int child = 2*k + 1;
+         while (child < this.size)
+         {
+            if (child + 1 < this.size && this.above(this.heap[child + 1],this.heap[child]))  child++;
+            int c = this.heap[child];
+            if (!this.above(c,i))  break;
+            this.heap[k] = c;
+            this.place[c] = k;
+            k = child;
+            child = 2*k + 1;
+         }
+         this.heap[k] = i;
+         this.place[i] = k;
       }
-      return index;
    }
 
    // checkIndex (private)
@@ -192,7 +415,7 @@ public class Memory
    // add
    // -> the returning value is the assigned index in the Memory object
    // -> if the Data object is already contained in the memory, only the associated value is updated
-   // -> FIFO, LRU or WO strategies are applied when memory is full (defined in constructor)
+   // -> the eviction policy selects the "victim" when memory is full (defined in constructor)
    // -> the method returns -1 if an internal error occurred
    public int add(Data data,double value)
    {
@@ -206,7 +429,12 @@ public class Memory
          int i = this.indexOf(data);
          if (i != -1)
          {
-            if (this.value[i] != value)  this.value[i] = value;
+            if (this.value[i] != value)
+            {
+               this.value[i] = value;
+               this.worst.update(i);
+               this.best.update(i);
+            }
             return i;
          }
 
@@ -222,20 +450,10 @@ public class Memory
          else if (!this.isEmpty())
          {
             // looking for the "victim"
-            if (this.method.equals("FIFO"))
-            {
-               pos = this.indexOfOldest();
-            }
-            else if (this.method.equals("LRU"))
-            {
-               pos = this.indexOfUseless();
-            }
-            else // WO
-            {
-               pos = this.indexOfWorst();
-            }
+            pos = this.policy.victim(data,value);
          }
          this.checkIndex(pos);
+         if (this.data[pos] != null)  this.release(pos);  // the victim leaves the hash index, the heaps and the list
       }
       catch (Exception e)
       {
@@ -246,9 +464,11 @@ public class Memory
       // including the new data in Memory
       this.data[pos] = new Data(data);
       this.value[pos] = value;
-      if (this.method.equals("FIFO") || this.method.equals("LRU"))
-         this.param[pos][0] = System.currentTimeMillis();  // valid for both FIFO and LRU methods
-      if (this.nExtParam > 0)  for (int j = 1; j < this.nExtParam; j++)  this.param[pos][this.nIntParam + j] = null;
+      this.indexInsert(pos);
+      this.worst.insert(pos);
+      this.best.insert(pos);
+      this.policy.loaded(pos);
+      if (this.nExtParam > 0)  for (int j = 0; j < this.nExtParam; j++)  this.param[pos][j] = null;
 
       // the returning value is the index in Memory where the new Data entry was included
       return pos;
@@ -267,7 +487,7 @@ public class Memory
       Data D = null;
       if (this.checkIndex(i))
       {
-         if (this.method.equals("LRU"))  this.param[i][0] = System.currentTimeMillis();
+         if (this.data[i] != null)  this.policy.accessed(i);
          D = this.data[i];
       }
       return D;
@@ -279,12 +499,25 @@ public class Memory
       Double value = null;
       if (this.checkIndex(i))
       {
-         if (this.method.equals("LRU"))  this.param[i][0] = System.currentTimeMillis();
+         if (this.data[i] != null)  this.policy.accessed(i);
          value = this.value[i];
       }
       return value;
    }
 
+   // dataAt (package-private): gives the Data entry at position i, without notifying the policy
+   Data dataAt(int i)
+   {
+      return this.data[i];
+   }
+
+   // valueAt (package-private): gives the value of the entry at position i, without notifying the policy
+   // -> it is meant for the eviction policies, which must not see their own reads as accesses
+   Double valueAt(int i)
+   {
+      return this.value[i];
+   }
+
    // getValueOf
    public Double getValueOf(Data data)
    {
@@ -301,7 +534,7 @@ public class Memory
          if (data == null) throw new Exception("Data object to be set is null");
          if (this.checkIndex(i))
          {
-            if (this.data == null) throw new Exception("Data entry with index " + i + " is not defined; use method add instead");
+            if (this.data[i] == null) throw new Exception("Data entry with index " + i + " is not defined; use method add instead");
          }
       }
       catch (Exception e)
@@ -310,26 +543,36 @@ public class Memory
          System.exit(1);
       }
 
-      if (this.contains(data))
+      int j = this.indexOf(data);
+      if (j != -1)
       {
          // the Data object is already in the memory; we move it at index i and update (if necessary) only the associated value
-         int j = this.indexOf(data);
          if (i != j)
          {
-            this.data[j] = this.data[i];
-            this.value[j] = this.value[i];
-            if (this.param != null)  this.param[j] = this.param[i];
+            this.exchange(i,j);
+            if (this.param != null)
+            {
+               Object [] tmp = this.param[i];
+               this.param[i] = this.param[j];
+               this.param[j] = tmp;
+            }
          }
-         this.data[i] = data;
+         this.data[i] = new Data(data);
          this.value[i] = value;
-         if (this.method.equals("LRU"))  this.param[i][0] = System.currentTimeMillis();
+         this.worst.update(i);
+         this.best.update(i);
+         this.policy.accessed(i);
       }
       else
       {
-         // the Data object is not in the Memory; updating the entry
-         this.data[i] = data;
+         // the Data object is not in the Memory; the entry is replaced (a copy is stored, so that the hash index remains valid)
+         this.release(i);
+         this.data[i] = new Data(data);
          this.value[i] = value;
-         if (this.method.equals("FIFO"))  this.param[i][0] = System.currentTimeMillis();
+         this.indexInsert(i);
+         this.worst.insert(i);
+         this.best.insert(i);
+         this.policy.loaded(i);
       }
    }
 
@@ -347,10 +590,10 @@ public class Memory
       if (this.checkIndex(i) && this.data[i] != null)
       {
          this.n--;
+         this.release(i);
          this.data[i] = null;
          this.value[i] = null;
-         if (this.method.equals("FIFO") || this.method.equals("LRU"))  this.param[i][0] = null;
-         if (this.nExtParam > 0)  for (int j = 0; j < this.nExtParam; j++)  this.param[i][this.nIntParam + j] = null;
+         if (this.nExtParam > 0)  for (int j = 0; j < this.nExtParam; j++)  this.param[i][j] = null;
          removed = true;
       }
       return removed;
@@ -429,9 +672,7 @@ public class Memory
 
       while (i < j)
       {
-         this.data[i] = this.data[j];
-         this.value[i] = this.value[j];
-         this.data[j] = null;  this.value[j] = null;
+         this.exchange(i,j);
          if (this.param != null)
          {
             Object [] tmp = this.param[i];
@@ -444,134 +685,39 @@ public class Memory
    }
 
    // indexOfWorst
-   // -> the worst is the one with the largest double value
+   // -> the worst is the one with the largest double value (the one with smallest index in case of ties)
+   // -> it is the top of the heap of the worst entries: O(1)
    // -> gives -1 when Memory is empty
    public int indexOfWorst()
    {
-      int worst = -1;
-      if (this.n > 0)
-      {
-         int i = 0;
-         int n = 0;
-         double worstValue = -Double.MAX_VALUE;
-         while (i < this.capacity && n < this.n)
-         {
-            if (this.data[i] != null && this.value[i] != null)
-            {
-               if (this.value[i] > worstValue)
-               {
-                  worst = i;
-                  worstValue = this.value[i];
-               }
-               n++;
-            }
-            i++;
-         }
-      }
-      return worst;
+      return this.worst.top();
    }
 
    // indexOfBest
-   // -> the best is the one with the smallest double value
+   // -> the best is the one with the smallest double value (the one with smallest index in case of ties)
+   // -> it is the top of the heap of the best entries: O(1)
    // -> gives -1 when the Memory is empty
    public int indexOfBest()
    {
-      int best = -1;
-      if (this.n > 0)
-      {
-         int i = 0;
-         int n = 0;
-         double bestValue = Double.MAX_VALUE;
-         while (i < this.capacity && n < this.n)
-         {
-            if (this.data[i] != null && this.value[i] != null)
-            {
-               if (this.value[i] < bestValue)
-               {
-                  best = i;
-                  bestValue = this.value[i];
-               }
-               n++;
-            }
-            i++;
-         }
-      }
-      return best;
+      return this.best.top();
    }
 
    // indexOfOldest
-   // -> the entry that is in Memory since longer time (time verification in terms of milliseconds)
+   // -> the entry that is in Memory since longer time (it is the first in the list of the FIFO policy)
    // -> gives -1 when the Memory is empty or when the FIFO method is not used
    public int indexOfOldest()
    {
-      if (this.isEmpty() || !this.method.equals("FIFO"))  return -1;
-
-      int oldest = 0;
-      try
-      {
-         while (oldest < this.capacity && (this.data[oldest] == null || this.value[oldest] == null))  oldest++;
-         if (oldest == this.capacity) throw new Exception("Memory: internal error");
-      }
-      catch (Exception e)
-      {
-         e.printStackTrace();
-         System.exit(1);
-      }
-      long longestTime = (long) this.param[oldest][0];
-      int i = oldest + 1;
-      int n = 1;
-      while (i < this.capacity && n < this.n)
-      {
-         if (this.data[i] != null && this.value[i] != null)
-         {
-            if(((long) this.param[i][0]) < longestTime)
-            {
-               oldest = i;
-               longestTime = (long) this.param[i][0];
-            }
-            n++;
-         }
-         i++;
-      }
-      return oldest;
+      if (this.isEmpty() || !this.policy.getName().equals("FIFO"))  return -1;
+      return this.policy.victim();
    }
 
    // indexOfUseless
-   // -> the entry that was not accessed since longer time (time verification in terms of milliseconds)
+   // -> the entry that was not accessed since longer time (it is the first in the list of the LRU policy)
    // -> gives -1 when Memory is empty or when the LRU method is not used
    public int indexOfUseless()
    {
-      if (this.isEmpty() || !this.method.equals("LRU"))  return -1;
-
-      int useless = 0;
-      try
-      {
-         while (useless < this.capacity && (this.data[useless] == null || this.value[useless] == null))  useless++;
-         if (useless == this.capacity) throw new Exception("Memory: internal error");
-      }
-      catch (Exception e)
-      {
-         e.printStackTrace();
-         System.exit(1);
-      }
-      long useTime = (long) this.param[useless][0];
-
-      int i = useless + 1;
-      int n = 1;
-      while (i < this.capacity && n < this.n)
-      {
-         if (this.data[i] != null && this.value[i] != null)
-         {
-            if (((long) this.param[i][0]) < useTime)
-            {  
-               useless = i; 
-               useTime = (long) this.param[i][0];
-            }
-            n++;
-         }
-         i++;
-      }
-      return useless;
+      if (this.isEmpty() || !this.policy.getName().equals("LRU"))  return -1;
+      return this.policy.victim();
    }
 
    // checkParamIndex (private)
@@ -596,8 +742,8 @@ public class Memory
       Object p = null;
       if (this.checkIndex(i) && this.checkParamIndex(j))
       {
-         if(this.method.equals("LRU"))  this.param[i][0] = System.currentTimeMillis();
-         p = this.param[i][this.nIntParam + j];
+         if (this.data[i] != null)  this.policy.accessed(i);
+         p = this.param[i][j];
       }
       return p;
    }
@@ -619,8 +765,8 @@ public class Memory
          System.exit(1);
       }
 
-      if(this.method.equals("LRU"))  this.param[i][0] = System.currentTimeMillis();
-      this.param[i][this.nIntParam + j] = param;
+      if (this.data[i] != null)  this.policy.accessed(i);
+      this.param[i][j] = param;
    }
 
    // toString
@@ -633,7 +779,7 @@ public class Memory
          print = print + "entries: " + this.n + ", ";
       print = print + "capacity: " + this.capacity + ", ";
       print = print + "parameters: " + this.nExtParam + ", ";
-      return print + this.method + "]";
+      return print + this.policy.getName() + "]";
    }
 
    // main (performing some basic tests)
@@ -855,6 +1001,163 @@ public class Memory
       }
       System.out.println("OK");
 
+      // hash index, heaps and victims
+      System.out.print("Testing the hash index, the heaps and the victims ... ");
+      for (int itest = 0; itest < NTESTS; itest++)
+      {
+         try
+         {
+            // random arguments (short Data objects, so that the same Data object is often added more than once)
+            int capacity = min + R.nextInt(max - min);
+            String[] methods = {"fifo","lru","wo","clock","tournament","awo","crowding"};
+            Memory M = new Memory(capacity,methods[R.nextInt(methods.length)],1);
+            String name = M.getPolicy().getName();
+            boolean lru = name.equals("LRU");
+            ArrayList<Data> order = new ArrayList<Data> ();  // the entries sorted by load time (or by access time, for LRU)
+            HashMap<Data,Integer> tags = new HashMap<Data,Integer> ();  // the extra parameter of every entry
+            int nbits = 4 + R.nextInt(6);
+            Exception E = new Exception("hash index of Memory object (add, set, remove, compact)");
+            Exception E1 = new Exception("heaps of Memory object (add, set, remove, compact)");
+            Exception E2 = new Exception("eviction policy of Memory object (add, set, remove, compact, and accesses)");
+            Exception E3 = new Exception("extra parameters of Memory object (add, set, remove, compact)");
+
+            // random sequence of operations
+            for (int iop = 0; iop < 4*capacity; iop++)
+            {
+               Data D = new Data(nbits,R,R.nextDouble());
+               int op = R.nextInt(10);
+               if (op < 6)
+               {
+                  boolean isNew = !M.contains(D);
+                  int i = M.add(D,R.nextDouble());
+                  order.removeIf(X -> !M.contains(X));
+                  if (isNew)
+                  {
+                     order.add(D);
+                     tags.put(D,iop);
+                     M.setParameter(i,0,iop);  // it is an access for the LRU policy, but D is already the most recent entry
+                  }
+               }
+               else if (op < 8)
+               {
+                  int i = R.nextInt(capacity);
+                  if (M.data[i] != null)
+                  {
+                     boolean isNew = !M.contains(D);
+                     M.set(i,D,R.nextDouble());
+                     order.removeIf(X -> !M.contains(X));
+                     if (isNew || lru)
+                     {
+                        order.remove(D);
+                        order.add(D);
+                     }
+                     if (isNew)
+                     {
+                        tags.put(D,iop);
+                        M.setParameter(i,0,iop);
+                     }
+                  }
+               }
+               else if (op < 9)
+               {
+                  if (R.nextBoolean())  M.remove(R.nextInt(capacity));  else  M.remove(D);
+                  order.removeIf(X -> !M.contains(X));
+               }
+               else if (R.nextBoolean())
+                  M.compact();
+               else
+               {
+                  int i = R.nextInt(capacity);
+                  if (lru && M.data[i] != null)
+                  {
+                     order.remove(M.data[i]);
+                     order.add(M.data[i]);
+                  }
+                  M.getValue(i);
+               }
+
+               // every Data entry is found at its position, and no other cells are used
+               int n = 0;
+               for (int i = 0; i < capacity; i++)
+               {
+                  if (M.data[i] != null)
+                  {
+                     if (M.indexOf(M.data[i]) != i) throw E;
+                     n++;
+                  }
+               }
+               if (n != M.numberOfEntries()) throw E;
+
+               // every entry keeps its own extra parameters, even after being moved (no rows are shared)
+               for (int i = 0; i < capacity; i++)
+               {
+                  if (M.data[i] == null)  continue;
+                  if (!tags.get(M.data[i]).equals(M.param[i][0])) throw E3;
+                  for (int k = 0; k < i; k++)  if (M.param[k] == M.param[i]) throw E3;
+               }
+
+               int cells = 0;
+               for (int c : M.index)  if (c != 0)  cells++;
+               if (cells != n) throw E;
+
+               // the tops of the heaps are the worst and the best entries (with the smallest index in case of ties)
+               int worst = -1;
+               int best = -1;
+               for (int i = 0; i < capacity; i++)
+               {
+                  if (M.data[i] == null)  continue;
+                  if (worst == -1 || M.value[i] > M.value[worst])  worst = i;
+                  if (best == -1 || M.value[i] < M.value[best])  best = i;
+               }
+               if (M.indexOfWorst() != worst) throw E1;
+               if (M.indexOfBest() != best) throw E1;
+
+               // the victims of the FIFO, LRU and AWO policies are consistent with the order of the entries
+               if (order.size() != n) throw E2;
+               if (n > 0)
+               {
+                  if (name.equals("FIFO") && !M.data[M.indexOfOldest()].equals(order.get(0))) throw E2;
+                  if (lru && !M.data[M.indexOfUseless()].equals(order.get(0))) throw E2;
+                  if (name.equals("AWO"))
+                  {
+                     int v = M.getPolicy().victim();
+                     int w = Math.min(4,n);
+                     int k = order.indexOf(M.data[v]);
+                     if (k < 0 || k >= w) throw E2;
+                     for (k = 0; k < w; k++)  if (M.value[M.indexOf(order.get(k))] > M.value[v]) throw E2;
+                  }
+               }
+
+               // the victim is a valid entry when Memory is full
+               if (M.isFull())
+               {
+                  int v = M.getPolicy().victim();
+                  if (v < 0 || v >= capacity || M.data[v] == null) throw E2;
+                  if (name.equals("WO") && v != worst) throw E2;
+               }
+
+               // comparison with a linear scan
+               D = new Data(nbits,R,R.nextDouble());
+               int j = -1;
+               for (int i = 0; i < capacity && j == -1; i++)  if (D.equals(M.data[i]))  j = i;
+               if (M.indexOf(D) != j) throw E;
+               if (M.contains(D) != (j != -1)) throw E;
+               if (j != -1 && M.getValueOf(D).doubleValue() != M.value[j]) throw E;
+               if (j != -1 && lru)
+               {
+                  order.remove(D);
+                  order.add(D);
+               }
+            }
+         }
+         catch (Exception e)
+         {
+            e.printStackTrace();
+            System.exit(1);
+         }
+      }
+      System.out.println("OK");
+
       // indexOfWorst and indexOfBest
       System.out.print("Testing indexOfWorst and indexOfBest ... ");
       for (int itest = 0; itest < NTESTS; itest++)
@@ -919,11 +1222,10 @@ public class Memory
             Memory MFifo = new Memory(capacity,"fifo");
             Memory MLru =  new Memory(capacity,"lru");
 
-            // adding the first entry and then waiting a little...
+            // adding the first entry (no need to wait: the policies keep the order of loads and accesses, with no ties)
             Data first = new Data(15,0.5);
             MFifo.add(first);
             MLru.add(first);
-            Thread.sleep(1);
 
             // adding other entries
             while (MFifo.numberOfEntries() < 1 + n && MLru.numberOfEntries() < 1 + n)
@@ -936,8 +1238,7 @@ public class Memory
                }
             }
 
-            // waiting a little... before adding the last entry
-            Thread.sleep(1);
+            // adding the last entry
             Data last = first;
             while (MFifo.contains(last) && MLru.contains(last))  last = new Data(15,R.nextDouble());
             MFifo.add(last);
@@ -962,7 +1263,6 @@ public class Memory
             MLru.checkIndex(j);
             if (j == -1) throw E2;
             if (j != MLru.indexOf(first)) throw E2;
-            Thread.sleep(1);
             MLru.getValue(i);
             j = MLru.indexOfUseless();
             if (j == MLru.indexOf(first)) throw E2;
@@ -978,6 +1278,102 @@ public class Memory
       }
       System.out.println("OK");
 
+      // eviction policies
+      System.out.print("Testing the eviction policies ... ");
+      for (int itest = 0; itest < NTESTS; itest++)
+      {
+         try
+         {
+            // random arguments
+            int capacity = 4 + R.nextInt(max - 4);
+            Exception E1 = new Exception("ClockEviction");
+            Exception E2 = new Exception("TournamentEviction");
+            Exception E3 = new Exception("AgedWorstOutEviction");
+            Exception E4 = new Exception("CrowdingEviction");
+
+            // CLOCK: the entries that were accessed get a second chance
+            Memory M = new Memory(capacity,new ClockEviction());
+            if (!M.getPolicy().getName().equals("CLOCK")) throw E1;
+            while (!M.isFull())
+            {
+               Data D = new Data(16,R.nextDouble());
+               if (!M.contains(D))  M.add(D);
+            }
+            Data D1 = new Data(16,0.5);
+            while (M.contains(D1))  D1 = new Data(16,R.nextDouble());
+            if (M.add(D1) != 0) throw E1;  // all reference bits are cleared, then position 0 is selected
+            M.getValue(2);
+            Data D2 = new Data(16,0.5);
+            while (M.contains(D2))  D2 = new Data(16,R.nextDouble());
+            if (M.add(D2) != 1) throw E1;
+            Data D3 = new Data(16,0.5);
+            while (M.contains(D3))  D3 = new Data(16,R.nextDouble());
+            if (M.add(D3) != 3) throw E1;  // position 2 was accessed
+            if (!M.contains(D1) || !M.contains(D2) || M.numberOfEntries() != capacity) throw E1;
+
+            // the other policies, compared to FIFO and WO
+            Memory MTour = new Memory(capacity,new TournamentEviction(capacity,new Random(R.nextLong())));
+            Memory MRand = new Memory(capacity,new TournamentEviction(1,new Random(R.nextLong())));
+            Memory MAwo1 = new Memory(capacity,new AgedWorstOutEviction(1));
+            Memory MAwoC = new Memory(capacity,new AgedWorstOutEviction(capacity),1);
+            Memory MFifo = new Memory(capacity,"fifo");
+            Memory MWo = new Memory(capacity,"wo");
+            Memory[] Ms = {MTour,MRand,MAwo1,MAwoC,MFifo,MWo};
+            for (int k = 0; k < 3*capacity; k++)
+            {
+               Data D = new Data(16,R.nextDouble());
+               double value = (double) R.nextInt(capacity);  // ties are frequent
+               for (Memory Mk : Ms)  Mk.add(D,value);
+               if (MRand.isFull() && MRand.getPolicy().victim() == -1) throw E2;
+               if (MTour.indexOfWorst() != MWo.indexOfWorst()) throw E2;
+               if (MAwo1.indexOfWorst() != MFifo.indexOfWorst()) throw E3;
+               if (MAwoC.indexOfWorst() != MWo.indexOfWorst()) throw E3;
+               for (int i = 0; i < capacity; i++)
+               {
+                  if (MTour.data[i] == null ? MWo.data[i] != null : !MTour.data[i].equals(MWo.data[i])) throw E2;
+                  if (MAwo1.data[i] == null ? MFifo.data[i] != null : !MAwo1.data[i].equals(MFifo.data[i])) throw E3;
+                  if (MAwoC.data[i] == null ? MWo.data[i] != null : !MAwoC.data[i].equals(MWo.data[i])) throw E3;
+               }
+            }
+
+            // CROWDING: the new entry replaces the nearest entry (if it is better) or the worst one
+            // - with and without the BK-tree
+            CrowdingEviction crowding = new CrowdingEviction(R.nextBoolean() ? 0 : capacity + 1);
+            M = new Memory(capacity,crowding);
+            Data center = new Data(64,0.5);
+            for (int k = 0; k < 6*capacity; k++)
+            {
+               Data D = center.randomSelectInNeighbourhood(1 + R.nextInt(8),R);  // near-identical entries
+               double value = R.nextDouble();
+               int nearest = -1;
+               for (int i = 0; i < capacity; i++)
+               {
+                  if (M.data[i] == null)  continue;
+                  if (nearest == -1 || D.hammingDistanceTo(M.data[i]) < D.hammingDistanceTo(M.data[nearest]))  nearest = i;
+               }
+               if (crowding.nearest(D) != nearest) throw E4;
+               if (R.nextInt(10) == 0)
+               {
+                  if (nearest != -1)  M.remove(nearest);
+                  continue;
+               }
+               boolean contained = M.contains(D);
+               boolean full = M.isFull();
+               int expected = -1;
+               if (full)  expected = nearest != -1 && value < M.value[nearest] ? nearest : M.indexOfWorst();
+               int i = M.add(D,value);
+               if (!contained && full && i != expected) throw E4;
+               if (R.nextInt(capacity) == 0)  M.compact();
+            }
+         }
+         catch (Exception e)
+         {
+            e.printStackTrace();
+            System.exit(1);
+         }
+      }
+      System.out.println("OK");
+
       // fillUp
       System.out.print("Testing fillUp ... ");
       for (int itest = 0; itest < NTESTS; itest++)
@@ -5,7 +5,7 @@
  *
  * initial version coded by Fatma Hamdi (M2 Miage 2020-21)
  *
- * last update: April 16, 2023
+ * last update: October 18, 2026
  *
  * AM
  */
@@ -32,7 +32,7 @@ public class MultiStart extends binMeta implements Objective
          this.objValue = this.obj.value(this.solution);
          this.M = null;
          if (memorySize <= 1) throw new Exception("MultiStart: specified memory size is too small, must be at least equal to 2");
-         this.M = new Memory(memorySize,"WO");
+         this.M = new Memory(memorySize,"CROWDING");  // new solutions replace their nearest worse solution, or the worst one
          if (this.M == null) throw new Exception("MultiStart: error while initializing internal memory (capacity " + memorySize + ")");
          if (maxTime <= 0) throw new Exception("MultiStart: the maximum execution time (in ms) is nonpositive");
          this.maxTime = maxTime;
@@ -132,7 +132,7 @@ public class MultiStart extends binMeta implements Objective
          D = M.getData(k);
 
          // looking for a neighbour and applying local optimization
-         Data newD = D.randomSelectInNeighbourhood(h,h);
+         Data newD = D.randomSelectInNeighbourhood(h,h,R);
          refine = new LocalOpt(newD,this.obj,localTime);
          refine.optimize();
          newD = refine.getSolution();
@@ -0,0 +1,467 @@
+
+/* MutableData class
+ *
+ * binMeta project
+ *
+ * A Data object whose bits can be flipped in place. It is meant to be used as a scratch solution
+ * in the inner loops of the meta-heuristics: it is created once per search, modified in place,
+ * passed to Objective.value, and then either reverted or frozen into an immutable Data object.
+ *
+ * last update: October 18, 2026
+ *
+ * AM
+ */
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class MutableData extends Data
+{
+   private int[] log;  // undo log: indices of the bits flipped since the last call to 'commit' (or 'revert')
+   private int nlog;  // number of entries in the undo log
+   private long[] marks;  // scratch bitmap used for selecting distinct bits in random moves
+   private Random R;  // Random object for random moves
+
+   // MutableData constructor: it generates a new MutableData object containing the same bit sequence
+   //                          of another Data object; the Random object is used for random moves
+   public MutableData(Data D,Random R)
+   {
+      super(D);
+      try
+      {
+         if (R == null) throw new Exception("Input Random object is null");
+         this.R = R;
+         this.log = new int [16];
+         this.nlog = 0;
+         this.marks = new long [this.words.length];
+      }
+      catch (Exception e)
+      {
+         e.printStackTrace();
+         System.exit(1);
+      }
+   }
+
+   // MutableData constructor: it generates a new MutableData object containing the same bit sequence
+   //                          of another Data object (the Random object is internally instantiated)
+   public MutableData(Data D)
+   {
+      this(D,new Random());
+   }
+
+   // Flips the bit of index k in place
+   // - the flip is recorded in the undo log
+   public void flip(int k)
+   {
+      try
+      {
+         if (k < 0 || k >= this.numberOfBits()) throw new Exception("MutableData: bit index is out of bounds");
+      }
+      catch (Exception e)
+      {
+         e.printStackTrace();
+         System.exit(1);
+      }
+
+      this.flipBit(k);
+      this.record(k);
+   }
+
+   // Gives the number of flips performed since the last call to 'commit' (or 'revert')
+   public int numberOfPendingFlips()
+   {
+      return this.nlog;
+   }
+
+   // Reverts all flips performed since the last call to 'commit' (or 'revert')
+   public void revert()
+   {
+      for (int j = this.nlog - 1; j >= 0; j--)  this.flipBit(this.log[j]);
+      this.nlog = 0;
+   }
+
+   // Accepts all flips performed since the last call to 'commit' (or 'revert')
+   public void commit()
+   {
+      this.nlog = 0;
+   }
+
+   // Gives a new (immutable) Data object containing the current bit sequence
+   public Data freeze()
+   {
+      return new Data(this);
+   }
+
+   // Performs in place the bitwise 'and' with the Data object D (the flips are recorded in the undo log)
+   public void andWith(Data D)
+   {
+      this.bitwise(D,'&');
+   }
+
+   // Performs in place the bitwise 'or' with the Data object D (the flips are recorded in the undo log)
+   public void orWith(Data D)
+   {
+      this.bitwise(D,'|');
+   }
+
+   // Performs in place the bitwise 'xor' with the Data object D (the flips are recorded in the undo log)
+   public void xorWith(Data D)
+   {
+      this.bitwise(D,'^');
+   }
+
+   // Performs in place the bitwise 'and not' with the Data object D (the flips are recorded in the undo log)
+   public void andNotWith(Data D)
+   {
+      this.bitwise(D,'-');
+   }
+
+   // Flips in place all bits (the flips are recorded in the undo log)
+   public void flipAll()
+   {
+      for (int k = 0; k < this.numberOfBits(); k++)
+      {
+         this.flipBit(k);
+         this.record(k);
+      }
+   }
+
+   // Randomly moves this object in its neighbourhood, with Hamming distance between l and u
+   // - it is the in-place version of 'randomSelectInNeighbourhood' (the flips are recorded in the undo log)
+   // - the selected bits are marked in the scratch bitmap, which is cleaned up while flipping them
+   public void randomMoveInNeighbourhood(int l,int u)
+   {
+      String msg = "Neighbourhood of MutableData object: ";
+      try
+      {
+         if (l <= 0) throw new Exception(msg + "lower bound on Hamming distance is nonpositive");
+         if (u < 0)  throw new Exception(msg + "upper bound on Hamming distance is negative");
+         if (l > u)  throw new Exception(msg + "upper bound is greater than lower bound on Hamming distance");
+         if (this.length() < l) throw new Exception(msg + "lower bound is greater than the Data object length");
+         if (this.length() < u) throw new Exception(msg + "upper bound is greater than the Data object length");
+      }
+      catch (Exception e)
+      {
+         e.printStackTrace();
+         System.exit(1);
+      }
+
+      this.selectBitsInNeighbourhood(l,u,this.R,this.marks);
+      this.flipMarked();
+   }
+
+   // Randomly moves this object in its neighbourhood, with Hamming distance between 1 and h
+   public void randomMoveInNeighbourhood(int h)
+   {
+      this.randomMoveInNeighbourhood(1,h);
+   }
+
+   // Randomly moves this object by flipping every bit with probability p
+   // - it is the in-place version of 'bernoulliMutation' (the flips are recorded in the undo log)
+   public void bernoulliMove(double p)
+   {
+      try
+      {
+         if (p < 0.0 || p > 1.0) throw new Exception("MutableData: specified probability p should be contained in the interval [0,1]");
+      }
+      catch (Exception e)
+      {
+         e.printStackTrace();
+         System.exit(1);
+      }
+
+      Data.bernoulliBits(this.marks,this.numberOfBits(),p,this.R);
+      this.flipMarked();
+   }
+
+   // contract (not supported on MutableData objects)
+   @Override
+   public void contract(int first,int last)
+   {
+      try
+      {
+         throw new Exception("MutableData: contraction is not supported, freeze the object first");
+      }
+      catch (Exception e)
+      {
+         e.printStackTrace();
+         System.exit(1);
+      }
+   }
+
+   // uncontract (not supported on MutableData objects)
+   @Override
+   public void uncontract()
+   {
+      try
+      {
+         throw new Exception("MutableData: uncontraction is not supported, freeze the object first");
+      }
+      catch (Exception e)
+      {
+         e.printStackTrace();
+         System.exit(1);
+      }
+   }
+
+   // Performs in place a bitwise operation with the Data object D, word by word (private method)
+   // - the operation codes are '&' (and), '|' (or), '^' (xor), and '-' (and not)
+   // - only the bits that actually change are flipped and recorded in the undo log
+   private void bitwise(Data D,char op)
+   {
+      try
+      {
+         if (D == null) throw new Exception("MutableData: input Data object is null");
+         if (D.numberOfBits() != this.numberOfBits()) throw new Exception("MutableData: the two Data objects have different size (in terms of bits)");
+         if (D.containsContractedSequences()) throw new Exception("MutableData: input Data object contains contracted sequences");
+      }
+      catch (Exception e)
+      {
+         e.printStackTrace();
+         System.exit(1);
+      }
+
+      for (int i = 0; i < this.words.length; i++)
+      {
+         long w = this.words[i];
+         long d = D.word(i);
+         long r;
+         if (op == '&')
+            r = w & d;
+         else if (op == '|')
+            r = w | d;
+         else if (op == '^')
+            r = w ^ d;
+         else
+            r = w & ~d;
+         long changed = w ^ r;
+         while (changed != 0L)
+         {
+            int k = (i << 6) + Long.numberOfLeadingZeros(changed);
+            this.flipBit(k);
+            this.record(k);
+            changed = changed ^ (Long.MIN_VALUE >>> k);
+         }
+      }
+   }
+
+   // Flips the bits marked in the scratch bitmap, and cleans up the bitmap (private method)
+   // - the flips are recorded in the undo log
+   private void flipMarked()
+   {
+      for (int i = 0; i < this.marks.length; i++)
+      {
+         long selected = this.marks[i];
+         this.marks[i] = 0L;
+         while (selected != 0L)
+         {
+            int k = (i << 6) + Long.numberOfLeadingZeros(selected);
+            this.flipBit(k);
+            this.record(k);
+            selected = selected ^ (Long.MIN_VALUE >>> k);
+         }
+      }
+   }
+
+   // Records a flip in the undo log (private method)
+   private void record(int k)
+   {
+      if (this.nlog == this.log.length)  this.log = Arrays.copyOf(this.log,2*this.log.length);
+      this.log[this.nlog] = k;
+      this.nlog++;
+   }
+
+   // main
+   public static void main(String[] args)
+   {
+      System.out.println("MutableData class\n");
+      int NTESTS = 10000;
+      int min = 2;
+      int max = 200;
+      long seed = 0;
+      Random R = new Random();
+      if (args != null && args.length > 0)
+         seed = Long.parseLong(args[0]);
+      else
+         seed = Math.abs(R.nextLong());
+      System.out.println("Random seed set to : " + seed);
+      R = new Random(seed);
+
+      // flip, revert, commit and freeze
+      System.out.print("Testing flip, revert, commit and freeze ... ");
+      for (int itest = 0; itest < NTESTS; itest++)
+      {
+         try
+         {
+            int n = min + R.nextInt(max - min);
+            Data D = new Data(n,0.5);
+            MutableData M = new MutableData(D,R);
+            Exception E = new Exception("public MutableData(Data,Random)");
+            if (!M.check_invariants()) throw E;
+            if (!M.equals(D)) throw E;
+            if (M.numberOfPendingFlips() != 0) throw E;
+
+            // flip
+            E = new Exception("public void flip(int)");
+            int k = R.nextInt(n);
+            M.flip(k);
+            if (!M.check_invariants()) throw E;
+            if (M.getBit(k) == D.getBit(k)) throw E;
+            if (M.hammingDistanceTo(D) != 1) throw E;
+            if (M.numberOfPendingFlips() != 1) throw E;
+            int m = 1 + R.nextInt(n);
+            for (int j = 0; j < m; j++)  M.flip(R.nextInt(n));
+            if (M.numberOfPendingFlips() != m + 1) throw E;
+            if (!M.check_invariants()) throw E;
+
+            // freeze
+            E = new Exception("public Data freeze()");
+            Data F = M.freeze();
+            if (F == null) throw E;
+            if (F instanceof MutableData) throw E;
+            if (!F.check_invariants()) throw E;
+            if (!F.equals(M)) throw E;
+
+            // revert
+            E = new Exception("public void revert()");
+            M.revert();
+            if (!M.equals(D)) throw E;
+            if (M.numberOfPendingFlips() != 0) throw E;
+            if (F.hammingDistanceTo(M) != F.hammingDistanceTo(D)) throw E;
+
+            // commit
+            E = new Exception("public void commit()");
+            M.flip(k);
+            M.commit();
+            if (M.numberOfPendingFlips() != 0) throw E;
+            M.revert();
+            if (M.hammingDistanceTo(D) != 1) throw E;
+         }
+         catch (Exception e)
+         {
+            e.printStackTrace();
+            System.exit(1);
+         }
+      }
+      System.out.println("OK");
+
+      // randomMoveInNeighbourhood
+      System.out.print("Testing randomMoveInNeighbourhood ... ");
+      for (int itest = 0; itest < NTESTS; itest++)
+      {
+         try
+         {
+            int n = min + 1 + R.nextInt(max - min - 1);
+            int l = 1 + n/10;
+            int u = l + R.nextInt(n - l + 1);
+            Data D = new Data(n,0.5);
+            MutableData M = new MutableData(D,R);
+            Exception E = new Exception("public void randomMoveInNeighbourhood(int,int)");
+            M.randomMoveInNeighbourhood(l,u);
+            if (!M.check_invariants()) throw E;
+            int h = M.hammingDistanceTo(D);
+            if (h < Math.min(l,n - 1)) throw E;
+            if (h > u) throw E;
+            if (M.numberOfPendingFlips() != h) throw E;
+            M.randomMoveInNeighbourhood(u);
+            M.revert();
+            if (!M.equals(D)) throw E;
+            if (n > 10)
+            {
+               Data C = new Data(D);
+               int c = 2 + R.nextInt(3);
+               C.contract(0,c);
+               M = new MutableData(C,R);
+               M.randomMoveInNeighbourhood(c);
+               if (M.hammingDistanceTo(C) != c) throw E;
+               M.revert();
+               if (!M.equals(C)) throw E;
+            }
+         }
+         catch (Exception e)
+         {
+            e.printStackTrace();
+            System.exit(1);
+         }
+      }
+      System.out.println("OK");
+
+      // bernoulliMove
+      System.out.print("Testing bernoulliMove ... ");
+      for (int itest = 0; itest < NTESTS; itest++)
+      {
+         try
+         {
+            int n = min + R.nextInt(max - min);
+            Data D = new Data(n,0.5);
+            MutableData M = new MutableData(D,R);
+            Exception E = new Exception("public void bernoulliMove(double)");
+            M.bernoulliMove(0.0);
+            if (M.numberOfPendingFlips() != 0) throw E;
+            M.bernoulliMove(1.0);
+            if (!M.check_invariants()) throw E;
+            if (!M.equals(new Data(D,true))) throw E;
+            if (M.numberOfPendingFlips() != n) throw E;
+            M.revert();
+            M.bernoulliMove(R.nextDouble());
+            if (!M.check_invariants()) throw E;
+            if (M.numberOfPendingFlips() != M.hammingDistanceTo(D)) throw E;
+            M.revert();
+            if (!M.equals(D)) throw E;
+         }
+         catch (Exception e)
+         {
+            e.printStackTrace();
+            System.exit(1);
+         }
+      }
+      System.out.println("OK");
+
+      // bitwise operations in place
+      System.out.print("Testing andWith, orWith, xorWith, andNotWith and flipAll ... ");
+      for (int itest = 0; itest < NTESTS; itest++)
+      {
+         try
+         {
+            int n = min + R.nextInt(max - min);
+            Data A = new Data(n,0.5);
+            Data B = new Data(n,0.5);
+            MutableData M = new MutableData(A,R);
+            Exception E = new Exception("public void andWith(Data)");
+            M.andWith(B);
+            if (!M.check_invariants()) throw E;
+            if (!M.equals(Data.and(A,B))) throw E;
+            if (M.numberOfPendingFlips() != M.hammingDistanceTo(A)) throw E;
+            M.revert();
+            E = new Exception("public void orWith(Data)");
+            M.orWith(B);
+            if (!M.equals(Data.or(A,B))) throw E;
+            M.revert();
+            E = new Exception("public void xorWith(Data)");
+            M.xorWith(B);
+            if (!M.equals(Data.xor(A,B))) throw E;
+            if (M.numberOfPendingFlips() != B.numberOfOnes()) throw E;
+            M.revert();
+            E = new Exception("public void andNotWith(Data)");
+            M.andNotWith(B);
+            if (!M.equals(Data.andNot(A,B))) throw E;
+            M.revert();
+            E = new Exception("public void flipAll()");
+            M.flipAll();
+            if (!M.check_invariants()) throw E;
+            if (!M.equals(Data.not(A))) throw E;
+            M.revert();
+            if (!M.equals(A)) throw E;
+         }
+         catch (Exception e)
+         {
+            e.printStackTrace();
+            System.exit(1);
+         }
+      }
+      System.out.println("OK");
+
+      // ending
+      System.out.println();
+   }
+}
@@ -7,7 +7,7 @@
  * - initial version coded by Issa Sanago (M1 Miage 2020-21)
  * - constructors rewritten (automatic generation)
  *
- * last update: April 16, 2023
+ * last update: October 18, 2026
  *
  * AM
  */
@@ -16,13 +16,13 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Arrays;
 import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.Random;
 
 public class NumberPartition implements Objective
 {
    // attributes
    private ArrayList<Integer> listOfIntegers;
+   private int total;  // sum of all integers
 
    // constructor (from List)
    public NumberPartition(List<Integer> listOfIntegers)
@@ -32,6 +32,8 @@ public class NumberPartition implements Objective
          if (listOfIntegers == null) throw new Exception("NumberPartition: List object is null");
          if (listOfIntegers.size() == 0) throw new Exception("NumberPartition: List object contains no integers");
          this.listOfIntegers = new ArrayList<Integer> (listOfIntegers);
+         this.total = 0;
+         for (Integer number : this.listOfIntegers)  this.total = this.total + number;
       }
       catch (Exception e)
       {
@@ -90,6 +92,8 @@ public class NumberPartition implements Objective
       this.listOfIntegers = l1;
       this.listOfIntegers.addAll(l2);
       Collections.shuffle(this.listOfIntegers);
+      this.total = 2*sum1;
+      if (sum1 < sum2)  this.total = 2*sum2;
    }
 
    // getName
@@ -138,15 +142,13 @@ public class NumberPartition implements Objective
       }
 
       // summing up the two partial sums
+      // - the elements in the second partition sum up to the total minus the sum of the first partition,
+      //   so that only the bits set to 1 need to be visited
       int sum = 0;
-      Iterator<Integer> It1 = D.iterator();
-      Iterator<Integer> It2 = this.listOfIntegers.iterator();
-      while (It1.hasNext() && It2.hasNext())
-      {
-         sum = sum + (2*It1.next() - 1) * It2.next();
-      }
+      Data.setBitIterator ItData = D.setBits();
+      while (ItData.hasNext())  sum = sum + this.listOfIntegers.get(ItData.nextInt());
 
-      return (double) Math.abs(sum);
+      return (double) Math.abs(2*sum - this.total);
    }
 
    // toString
@@ -0,0 +1,336 @@
+
+/* PersistentData class
+ *
+ * binMeta project
+ *
+ * A persistent (immutable, structurally shared) version of a Data object, meant for storing long
+ * trajectories and populations of near-identical solutions. The bits are stored in chunks of 64-bit
+ * words; a new version obtained by flipping k bits copies only the (at most k) chunks that are touched,
+ * and it shares all other chunks with its parent. The chunks contain about sqrt(n/64) words each, so
+ * that every new version costs O(sqrt(n)) memory, rather than O(n).
+ *
+ * PersistentData objects are converted from and to Data objects (contracted sequences are not supported).
+ *
+ * last update: October 18, 2026
+ *
+ * AM
+ */
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class PersistentData
+{
+   private int size;  // number of bits
+   private int shift;  // every chunk contains 2^shift words
+   private long[][] chunks;  // the chunks (they are shared among versions, and never modified after construction)
+   private long fingerprint;  // Zobrist fingerprint of the bit sequence (the same of the Data object, see Data.fingerprint)
+
+   // PersistentData constructor: it generates a new PersistentData object containing the same bit sequence of a Data object
+   public PersistentData(Data D)
+   {
+      try
+      {
+         if (D == null) throw new Exception("PersistentData: input Data object is null");
+         if (D.containsContractedSequences()) throw new Exception("PersistentData: input Data object contains contracted sequences");
+      }
+      catch (Exception e)
+      {
+         e.printStackTrace();
+         System.exit(1);
+      }
+
+      this.size = D.numberOfBits();
+      int N = (this.size + 63) >>> 6;
+      this.shift = (33 - Integer.numberOfLeadingZeros(N - 1))/2;
+      int chunk = 1 << this.shift;
+      this.chunks = new long [(N + chunk - 1) >>> this.shift][];
+      for (int c = 0; c < this.chunks.length; c++)
+      {
+         this.chunks[c] = new long [Math.min(chunk,N - (c << this.shift))];
+         for (int j = 0; j < this.chunks[c].length; j++)  this.chunks[c][j] = D.word((c << this.shift) + j);
+      }
+      this.fingerprint = D.fingerprint();
+   }
+
+   // PersistentData constructor: new version sharing the chunk table of its parent (private constructor)
+   private PersistentData(PersistentData parent)
+   {
+      this.size = parent.size;
+      this.shift = parent.shift;
+      this.chunks = Arrays.copyOf(parent.chunks,parent.chunks.length);
+      this.fingerprint = parent.fingerprint;
+   }
+
+   // Gives the number of bits
+   public int numberOfBits()
+   {
+      return this.size;
+   }
+
+   // Gives the specified bit
+   public int getBit(int k)
+   {
+      try
+      {
+         if (k < 0 || k >= this.size) throw new Exception("PersistentData: bit index is out of bounds");
+      }
+      catch (Exception e)
+      {
+         e.printStackTrace();
+         System.exit(1);
+      }
+
+      return (int) (this.word(k >>> 6) >>> (63 - (k & 63))) & 1;
+   }
+
+   // Gives the number of bits equal to 1
+   public int numberOfOnes()
+   {
+      int nOnes = 0;
+      for (long[] chunk : this.chunks)  for (long w : chunk)  nOnes = nOnes + Long.bitCount(w);
+      return nOnes;
+   }
+
+   // Gives the Zobrist fingerprint of the bit sequence (it is equal to the fingerprint of the corresponding Data object)
+   public long fingerprint()
+   {
+      return this.fingerprint;
+   }
+
+   // Gives a new version of the PersistentData object, with the specified bits flipped
+   // - only the chunks containing the flipped bits are copied, all others are shared with this version
+   // - a bit index appearing twice is flipped twice
+   public PersistentData withBitsFlipped(int... bits)
+   {
+      try
+      {
+         if (bits == null) throw new Exception("PersistentData: the array of bit indices is null");
+         for (int k : bits)  if (k < 0 || k >= this.size) throw new Exception("PersistentData: bit index is out of bounds");
+      }
+      catch (Exception e)
+      {
+         e.printStackTrace();
+         System.exit(1);
+      }
+
+      PersistentData P = new PersistentData(this);
+      for (int k : bits)
+      {
+         int c = k >>> (6 + this.shift);
+         if (P.chunks[c] == this.chunks[c])  P.chunks[c] = this.chunks[c].clone();
+         P.chunks[c][(k >>> 6) & ((1 << this.shift) - 1)] ^= Long.MIN_VALUE >>> k;
+         P.fingerprint = P.fingerprint ^ Data.key(k);
+      }
+      return P;
+   }
+
+   // Gives a new version of the PersistentData object, containing the same bit sequence of a Data object
+   // - the chunks that do not change are shared with this version (the others are copied from D)
+   public PersistentData with(Data D)
+   {
+      try
+      {
+         if (D == null) throw new Exception("PersistentData: input Data object is null");
+         if (D.containsContractedSequences()) throw new Exception("PersistentData: input Data object contains contracted sequences");
+         if (D.numberOfBits() != this.size) throw new Exception("PersistentData: the Data object has a different number of bits");
+      }
+      catch (Exception e)
+      {
+         e.printStackTrace();
+         System.exit(1);
+      }
+
+      PersistentData P = new PersistentData(this);
+      for (int c = 0; c < this.chunks.length; c++)
+      {
+         long[] chunk = this.chunks[c];
+         int first = c << this.shift;
+         int j = 0;
+         while (j < chunk.length && chunk[j] == D.word(first + j))  j++;
+         if (j < chunk.length)
+         {
+            P.chunks[c] = new long [chunk.length];
+            for (j = 0; j < chunk.length; j++)  P.chunks[c][j] = D.word(first + j);
+         }
+      }
+      P.fingerprint = D.fingerprint();
+      return P;
+   }
+
+   // Gives a new Data object containing the bit sequence of the PersistentData object
+   public Data toData()
+   {
+      long[] words = new long [(this.size + 63) >>> 6];
+      for (int c = 0; c < this.chunks.length; c++)  System.arraycopy(this.chunks[c],0,words,c << this.shift,this.chunks[c].length);
+      return new Data(this.size,words);
+   }
+
+   // Gives the Hamming distance to another PersistentData object
+   // - the chunks shared by the two objects are not compared
+   public int hammingDistanceTo(PersistentData P)
+   {
+      try
+      {
+         if (P == null) throw new Exception("PersistentData: input PersistentData object is null");
+         if (P.size != this.size) throw new Exception("PersistentData: the two objects have a different number of bits");
+      }
+      catch (Exception e)
+      {
+         e.printStackTrace();
+         System.exit(1);
+      }
+
+      int d = 0;
+      for (int c = 0; c < this.chunks.length; c++)
+      {
+         long[] chunk = this.chunks[c];
+         long[] other = P.chunks[c];
+         if (chunk == other)  continue;
+         for (int j = 0; j < chunk.length; j++)  d = d + Long.bitCount(chunk[j] ^ other[j]);
+      }
+      return d;
+   }
+
+   // Gives the number of words that this PersistentData object shares with another one (the chunks are compared by reference)
+   public int numberOfSharedWords(PersistentData P)
+   {
+      try
+      {
+         if (P == null) throw new Exception("PersistentData: input PersistentData object is null");
+      }
+      catch (Exception e)
+      {
+         e.printStackTrace();
+         System.exit(1);
+      }
+
+      int n = 0;
+      if (P.size != this.size)  return n;
+      for (int c = 0; c < this.chunks.length; c++)  if (this.chunks[c] == P.chunks[c])  n = n + this.chunks[c].length;
+      return n;
+   }
+
+   // Gives the i-th 64-bit word of the bit sequence (private method)
+   private long word(int i)
+   {
+      return this.chunks[i >>> this.shift][i & ((1 << this.shift) - 1)];
+   }
+
+   // equals
+   @Override
+   public boolean equals(Object o)
+   {
+      boolean isPersistentData = (o instanceof PersistentData);
+      if (!isPersistentData)  return false;
+      PersistentData P = (PersistentData) o;
+      if (this == P)  return true;
+      if (this.size != P.size || this.fingerprint != P.fingerprint)  return false;
+      return this.hammingDistanceTo(P) == 0;
+   }
+
+   // hashCode (based on the fingerprint)
+   @Override
+   public int hashCode()
+   {
+      return (int) (this.fingerprint ^ (this.fingerprint >>> 32));
+   }
+
+   // toString
+   @Override
+   public String toString()
+   {
+      return this.toData().toString();
+   }
+
+   // main
+   public static void main(String[] args)
+   {
+      System.out.println("PersistentData class\n");
+      int NTESTS = 1000;
+      int min = 2;
+      int max = 20000;
+      long seed = 0;
+      Random R = new Random();
+      if (args != null && args.length > 0)
+         seed = Long.parseLong(args[0]);
+      else
+         seed = Math.abs(R.nextLong());
+      System.out.println("Random seed set to : " + seed);
+      R = new Random(seed);
+
+      // constructor and toData
+      System.out.print("Testing constructor and toData ... ");
+      for (int itest = 0; itest < NTESTS; itest++)
+      {
+         try
+         {
+            Exception E = new Exception("public PersistentData(Data) and public Data toData()");
+            int n = min + R.nextInt(itest%10 == 0 ? max : 200);
+            Data D = new Data(n,R.nextDouble());
+            if (n > 10 && R.nextBoolean())  D = new Data(D,3,n);  // view
+            PersistentData P = new PersistentData(D);
+            if (P.numberOfBits() != D.numberOfBits()) throw E;
+            if (P.numberOfOnes() != D.numberOfOnes()) throw E;
+            if (P.fingerprint() != D.fingerprint()) throw E;
+            Data F = P.toData();
+            if (!F.check_invariants()) throw E;
+            if (!F.equals(D)) throw E;
+            for (int k = 0; k < D.numberOfBits(); k++)  if (P.getBit(k) != D.getBit(k)) throw E;
+         }
+         catch (Exception e)
+         {
+            e.printStackTrace();
+            System.exit(1);
+         }
+      }
+      System.out.println("OK");
+
+      // withBitsFlipped and with
+      System.out.print("Testing withBitsFlipped and with ... ");
+      for (int itest = 0; itest < NTESTS; itest++)
+      {
+         try
+         {
+            Exception E = new Exception("public PersistentData withBitsFlipped(int...)");
+            int n = min + R.nextInt(itest%10 == 0 ? max : 200);
+            Data D = new Data(n,0.5);
+            PersistentData P = new PersistentData(D);
+            int[] bits = new int [1 + R.nextInt(5)];
+            MutableData M = new MutableData(D,R);
+            for (int i = 0; i < bits.length; i++)
+            {
+               bits[i] = R.nextInt(n);
+               M.flip(bits[i]);
+            }
+            PersistentData Q = P.withBitsFlipped(bits);
+            if (!Q.toData().equals(M)) throw E;
+            if (Q.fingerprint() != M.fingerprint()) throw E;
+            if (Q.fingerprint() != D.fingerprintWithBitsFlipped(bits)) throw E;
+            if (Q.hammingDistanceTo(P) != D.hammingDistanceTo(M)) throw E;
+            if (Q.equals(P) != (D.hammingDistanceTo(M) == 0)) throw E;
+            if (!P.toData().equals(D)) throw E;  // the parent is unchanged
+            int N = (n + 63)/64;
+            int chunk = 1 << P.shift;
+            if (P.numberOfSharedWords(Q) < N - bits.length*chunk) throw E;
+
+            E = new Exception("public PersistentData with(Data)");
+            PersistentData S = P.with(M);
+            if (!S.equals(Q)) throw E;
+            if (S.hashCode() != Q.hashCode()) throw E;
+            if (P.numberOfSharedWords(S) < N - bits.length*chunk) throw E;
+            if (P.with(D).numberOfSharedWords(P) != N) throw E;
+         }
+         catch (Exception e)
+         {
+            e.printStackTrace();
+            System.exit(1);
+         }
+      }
+      System.out.println("OK");
+
+      // ending
+      System.out.println();
+   }
+}
+
@@ -3,7 +3,7 @@
  *
  * binMeta project
  *
- * last update: April 16, 2023
+ * last update: October 18, 2026
  *
  * AM
  */
@@ -86,8 +86,7 @@ public class Pi implements Objective
       double maxAngle = 2.0*Math.PI/this.n;
       for (int i = 0; i < this.n; i++)
       {
-         Data Angle = new Data(D,i*this.ndigits,(i+1)*this.ndigits);
-         double angle = previous + Angle.doubleValue();
+         double angle = previous + D.getFraction(i*this.ndigits,this.ndigits);
          if (angle > 2.0*Math.PI)  angle = 2.0*Math.PI;
          x[i] = Math.cos(angle);
          y[i] = Math.sin(angle);
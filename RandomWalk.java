@@ -3,7 +3,7 @@
  *
  * binMeta project
  *
- * last update: April 16, 2023
+ * last update: October 18, 2026
  *
  * AM
  */
@@ -41,7 +41,7 @@ public class RandomWalk extends binMeta
    public void optimize()
    {
       Random R = new Random();
-      Data D = new Data(this.solution);
+      MutableData D = new MutableData(this.solution,R);  // the walker is moved in place
       int maxstep = Math.max(3,D.numberOfBits());  // Hamming distance will be randomly selected in [1,maxstep]
       long startime = System.currentTimeMillis();
 
@@ -51,19 +51,19 @@ public class RandomWalk extends binMeta
          // the random walker can walk in a neighbourhood of D
          int h = 1 + R.nextInt(maxstep - 1);
 
-         // generating a new solution in the neighbour of D with Hamming distance h
-         Data newD = D.randomSelectInNeighbourhood(h);
+         // moving D to a new solution in its neighbour with Hamming distance h
+         D.randomMoveInNeighbourhood(h);
 
          // evaluating the quality of the generated solution
-         double value = obj.value(newD);
+         double value = obj.value(D);
          if (this.objValue > value)
          {
             this.objValue = value;
-            this.solution = new Data(newD);
+            this.solution = D.freeze();
          }
 
          // the walk continues from the new generated solution
-         D = newD;
+         D.commit();
       }
    }
 }
@@ -8,7 +8,7 @@
  * - objective function remodeled to avoid large discontinuities
  * - constructors rewritten (automatic generation)
  *
- * last update: April 24, 2023
+ * last update: October 18, 2026
  *
  * AM
  */
@@ -18,7 +18,6 @@ import java.util.Set;
 import java.util.HashSet;
 import java.util.List;
 import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.Random;
 
 public class SetCover implements Objective 
@@ -40,7 +39,7 @@ public class SetCover implements Objective
          if (listOfSets.isEmpty()) throw new Exception("SetCover: specified Set containing the sets is empty");
          for (Set<Integer> s : listOfSets)
              if (s == null || s.isEmpty()) throw new Exception("SetCover: it looks like one of the sets in listOfSets is null or empty");
-         this.listOfSets = listOfSets;
+         this.listOfSets = new ArrayList<Set<Integer>> (listOfSets);
          HashSet<Integer> everything = new HashSet<Integer> (this.Universe);
          for (Set<Integer> s : listOfSets)  everything.removeAll(s);
          if (!everything.isEmpty()) throw new Exception("SetCover: the specified Universe cannot be covered with the given set of sets");
@@ -160,22 +159,17 @@ public class SetCover implements Objective
       }
 
       // preparing variables and iterators
-      Data.bitIterator ItData = D.iterator();
-      Iterator<Set<Integer>> ItValue = this.listOfSets.iterator();
+      Data.setBitIterator ItData = D.setBits();
       HashSet<Integer> remaining = new HashSet<Integer> (this.Universe);
 
-      // computing the union of the set for the selected elements
+      // computing the union of the set for the selected elements (only the bits set to 1 are visited)
       int value = 0;
-      while (ItData.hasNext() && ItValue.hasNext())
+      while (ItData.hasNext())
       {
-         Set<Integer> subset = ItValue.next();
-         if (ItData.next() == 1)
-         {
-            value = value + subset.size();
-            remaining.removeAll(subset);
-         }
+         Set<Integer> subset = this.listOfSets.get(ItData.nextInt());
+         value = value + subset.size();
+         remaining.removeAll(subset);
       }
-      ItData.reset();
 
       // we count the number of selected sets, and we penalize if the universe is not covered
       return (double) (value + remaining.size());
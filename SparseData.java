@@ -0,0 +1,508 @@
+
+/* SparseData class
+ *
+ * binMeta project
+ *
+ * A bit sequence stored either as the sorted array of the indices of its bits equal to 1 (sparse form),
+ * or as a Data object (dense form). The form is chosen automatically, after every operation, from the
+ * density of the bits equal to 1. In sparse form, the operations cost time proportional to the number
+ * of bits equal to 1, and not to the total number of bits; since merging two arrays of indices costs
+ * some nanoseconds per index, while two words of a Data object are compared in less than a nanosecond,
+ * the sparse form is used only when less than 1 bit every 1024 is equal to 1 (an index costs 32 bits,
+ * so that the sparse form also takes much less memory).
+ *
+ * SparseData objects are converted from and to Data objects (contracted sequences are not supported).
+ *
+ * last update: October 18, 2026
+ *
+ * AM
+ */
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.IntConsumer;
+
+public class SparseData
+{
+   private static final int ratio = 1024;  // the sparse form is used when less than 1 bit every 'ratio' is equal to 1
+   private int size;  // number of bits
+   private int[] ones;  // sparse form: sorted indices of the bits equal to 1 (null in dense form)
+   private Data dense;  // dense form (null in sparse form)
+
+   // SparseData constructor: it generates a new SparseData object containing the same bit sequence of a Data object
+   public SparseData(Data D)
+   {
+      try
+      {
+         if (D == null) throw new Exception("SparseData: input Data object is null");
+         if (D.containsContractedSequences()) throw new Exception("SparseData: input Data object contains contracted sequences");
+      }
+      catch (Exception e)
+      {
+         e.printStackTrace();
+         System.exit(1);
+      }
+
+      this.size = D.numberOfBits();
+      int nOnes = D.numberOfOnes();
+      if (SparseData.isSparse(this.size,nOnes))
+      {
+         this.ones = new int [nOnes];
+         Data.setBitIterator It = D.setBits();
+         for (int i = 0; i < nOnes; i++)  this.ones[i] = It.nextInt();
+         this.dense = null;
+      }
+      else
+      {
+         this.ones = null;
+         this.dense = new Data(D);
+      }
+   }
+
+   // SparseData constructor: it generates a new SparseData object of n bits, where the bits equal to 1 are specified in an array
+   // - the indices of the bits equal to 1 can be given in any order, but they need to be distinct
+   public SparseData(int n,int[] ones)
+   {
+      try
+      {
+         if (n <= 0) throw new Exception("SparseData: specified size is nonpositive");
+         if (ones == null) throw new Exception("SparseData: the array of bit indices is null");
+         int[] sorted = ones.clone();
+         Arrays.sort(sorted);
+         for (int i = 0; i < sorted.length; i++)
+         {
+            if (sorted[i] < 0 || sorted[i] >= n) throw new Exception("SparseData: bit index is out of bounds");
+            if (i > 0 && sorted[i] == sorted[i-1]) throw new Exception("SparseData: bit indices are not distinct");
+         }
+         this.size = n;
+         this.ones = sorted;
+         this.dense = null;
+         this.normalize();
+      }
+      catch (Exception e)
+      {
+         e.printStackTrace();
+         System.exit(1);
+      }
+   }
+
+   // SparseData constructor: sorted indices of the bits equal to 1 (no copy is performed) (private constructor)
+   private SparseData(int n,int[] ones,Data dense)
+   {
+      this.size = n;
+      this.ones = ones;
+      this.dense = dense;
+      this.normalize();
+   }
+
+   // Verifies whether the sparse form is to be used for n bits, nOnes of which are equal to 1
+   public static boolean isSparse(int n,int nOnes)
+   {
+      return (long) SparseData.ratio*nOnes < n;
+   }
+
+   // Verifies whether this object is in sparse form
+   public boolean isSparse()
+   {
+      return this.ones != null;
+   }
+
+   // Switches to the form corresponding to the current density (private method)
+   private void normalize()
+   {
+      if (this.ones != null && !SparseData.isSparse(this.size,this.ones.length))
+      {
+         long[] words = new long [(this.size + 63) >>> 6];
+         for (int k : this.ones)  words[k >>> 6] |= Long.MIN_VALUE >>> k;
+         this.dense = new Data(this.size,words);
+         this.ones = null;
+      }
+      else if (this.dense != null && SparseData.isSparse(this.size,this.dense.numberOfOnes()))
+      {
+         int[] array = new int [this.dense.numberOfOnes()];
+         Data.setBitIterator It = this.dense.setBits();
+         for (int i = 0; i < array.length; i++)  array[i] = It.nextInt();
+         this.ones = array;
+         this.dense = null;
+      }
+   }
+
+   // Gives the number of bits
+   public int numberOfBits()
+   {
+      return this.size;
+   }
+
+   // Gives the number of bits equal to 1
+   public int numberOfOnes()
+   {
+      if (this.ones != null)  return this.ones.length;
+      return this.dense.numberOfOnes();
+   }
+
+   // Gives the specified bit
+   public int getBit(int k)
+   {
+      try
+      {
+         if (k < 0 || k >= this.size) throw new Exception("SparseData: bit index is out of bounds");
+      }
+      catch (Exception e)
+      {
+         e.printStackTrace();
+         System.exit(1);
+      }
+
+      if (this.ones != null)  return Arrays.binarySearch(this.ones,k) >= 0 ? 1 : 0;
+      return this.dense.getBit(k);
+   }
+
+   // Gives the index of the first bit equal to 1 which is found at, or after, the specified index (-1 if there are none)
+   public int nextSetBit(int from)
+   {
+      if (this.ones == null)  return this.dense.nextSetBit(from);
+      try
+      {
+         if (from < 0) throw new Exception("SparseData: bit index is out of bounds");
+      }
+      catch (Exception e)
+      {
+         e.printStackTrace();
+         System.exit(1);
+      }
+
+      int i = Arrays.binarySearch(this.ones,from);
+      if (i < 0)  i = -i - 1;
+      return i < this.ones.length ? this.ones[i] : -1;
+   }
+
+   // Performs the given action on the index of every bit equal to 1 (in increasing order)
+   public void forEachSetBit(IntConsumer action)
+   {
+      if (this.ones == null)
+      {
+         this.dense.forEachSetBit(action);
+         return;
+      }
+      try
+      {
+         if (action == null) throw new Exception("SparseData: the IntConsumer object is null");
+      }
+      catch (Exception e)
+      {
+         e.printStackTrace();
+         System.exit(1);
+      }
+
+      for (int k : this.ones)  action.accept(k);
+   }
+
+   // Gives an iterator on the indices of the bits equal to 1 (in increasing order)
+   public PrimitiveIterator.OfInt setBits()
+   {
+      if (this.ones == null)  return this.dense.setBits();
+      return Arrays.stream(this.ones).iterator();
+   }
+
+   // Gives the Hamming distance to another SparseData object
+   // - two objects in sparse form are merged, in time proportional to their number of bits equal to 1
+   public int hammingDistanceTo(SparseData S)
+   {
+      try
+      {
+         if (S == null) throw new Exception("SparseData: input SparseData object is null");
+         if (S.size != this.size) throw new Exception("SparseData: the two objects have a different number of bits");
+      }
+      catch (Exception e)
+      {
+         e.printStackTrace();
+         System.exit(1);
+      }
+
+      if (this.ones == null && S.ones == null)  return this.dense.hammingDistanceTo(S.dense);
+      if (this.ones != null && S.ones != null)  return this.ones.length + S.ones.length - 2*SparseData.intersection(this.ones,S.ones);
+      SparseData sparse = this.ones != null ? this : S;
+      Data D = this.ones != null ? S.dense : this.dense;
+      int common = 0;
+      for (int k : sparse.ones)  common = common + D.getBit(k);
+      return sparse.ones.length + D.numberOfOnes() - 2*common;
+   }
+
+   // Gives the bitwise 'xor' of two SparseData objects
+   public static SparseData xor(SparseData S1,SparseData S2)
+   {
+      try
+      {
+         if (S1 == null || S2 == null) throw new Exception("SparseData: input SparseData object is null");
+         if (S1.size != S2.size) throw new Exception("SparseData: the two objects have a different number of bits");
+      }
+      catch (Exception e)
+      {
+         e.printStackTrace();
+         System.exit(1);
+      }
+
+      if (S1.ones == null && S2.ones == null)  return new SparseData(S1.size,null,Data.xor(S1.dense,S2.dense));
+      if (S1.ones != null && S2.ones != null)  return new SparseData(S1.size,SparseData.symmetricDifference(S1.ones,S2.ones),null);
+      SparseData sparse = S1.ones != null ? S1 : S2;
+      MutableData M = new MutableData(S1.ones != null ? S2.dense : S1.dense);
+      for (int k : sparse.ones)  M.flip(k);
+      return new SparseData(S1.size,null,M.freeze());
+   }
+
+   // Selects a random SparseData object in the neighbourhood with Hamming distance [l,u] from this object
+   // - the Hamming distance is chosen uniformly in [l,u] (and at most n - 1), as for Data objects
+   // - in sparse form, Floyd's algorithm selects the bits to flip, which are then merged with the bits equal to 1
+   public SparseData randomSelectInNeighbourhood(int l,int u,Random R)
+   {
+      String msg = "Neighbourhood of SparseData object: ";
+      try
+      {
+         if (l <= 0) throw new Exception(msg + "lower bound on Hamming distance is nonpositive");
+         if (u < 0)  throw new Exception(msg + "upper bound on Hamming distance is negative");
+         if (l > u)  throw new Exception(msg + "upper bound is greater than lower bound on Hamming distance");
+         if (this.size < u) throw new Exception(msg + "upper bound is greater than the number of bits");
+         if (R == null) throw new Exception(msg + "input Random object is null");
+      }
+      catch (Exception e)
+      {
+         e.printStackTrace();
+         System.exit(1);
+      }
+
+      // many bits to flip: the dense form is used
+      if (this.ones == null || 2*u > this.size)  return new SparseData(this.size,null,this.toData().randomSelectInNeighbourhood(l,u,R));
+
+      // Floyd's algorithm (distinct bits, in time proportional to their number)
+      int h = l;
+      if (u > l)  h = l + R.nextInt(u - l + 1);
+      if (h > this.size - 1)  h = this.size - 1;
+      Set<Integer> selected = new HashSet<Integer> (2*h);
+      for (int j = this.size - h; j < this.size; j++)
+      {
+         int t = R.nextInt(j + 1);
+         if (!selected.add(t))  selected.add(j);
+      }
+      int[] flipped = new int [h];
+      int i = 0;
+      for (int k : selected)  flipped[i++] = k;
+      Arrays.sort(flipped);
+      return new SparseData(this.size,SparseData.symmetricDifference(this.ones,flipped),null);
+   }
+
+   // Selects a random SparseData object in the neighbourhood with Hamming distance [1,h] from this object
+   public SparseData randomSelectInNeighbourhood(int h,Random R)
+   {
+      return this.randomSelectInNeighbourhood(1,h,R);
+   }
+
+   // Gives a new Data object containing the bit sequence of the SparseData object
+   public Data toData()
+   {
+      if (this.ones == null)  return new Data(this.dense);
+      long[] words = new long [(this.size + 63) >>> 6];
+      for (int k : this.ones)  words[k >>> 6] |= Long.MIN_VALUE >>> k;
+      return new Data(this.size,words);
+   }
+
+   // Gives the Zobrist fingerprint of the bit sequence (it is equal to the fingerprint of the corresponding Data object)
+   public long fingerprint()
+   {
+      if (this.ones == null)  return this.dense.fingerprint();
+      long h = Data.mix(-1L - this.size);
+      for (int k : this.ones)  h = h ^ Data.key(k);
+      return h;
+   }
+
+   // Gives the number of common entries in two sorted arrays (private method)
+   // - the merge is written without branches on the entries (they are unpredictable)
+   private static int intersection(int[] a,int[] b)
+   {
+      int common = 0;
+      int i = 0;
+      int j = 0;
+      while (i < a.length && j < b.length)
+      {
+         int x = a[i];
+         int y = b[j];
+         common = common + (x == y ? 1 : 0);
+         i = i + (x <= y ? 1 : 0);
+         j = j + (y <= x ? 1 : 0);
+      }
+      return common;
+   }
+
+   // Gives the sorted array of the entries appearing in only one of two sorted arrays (private method)
+   // - the merge is written without branches on the entries (they are unpredictable)
+   private static int[] symmetricDifference(int[] a,int[] b)
+   {
+      int[] c = new int [a.length + b.length];
+      int n = 0;
+      int i = 0;
+      int j = 0;
+      while (i < a.length && j < b.length)
+      {
+         int x = a[i];
+         int y = b[j];
+         c[n] = Math.min(x,y);
+         n = n + (x != y ? 1 : 0);
+         i = i + (x <= y ? 1 : 0);
+         j = j + (y <= x ? 1 : 0);
+      }
+      System.arraycopy(a,i,c,n,a.length - i);
+      n = n + a.length - i;
+      System.arraycopy(b,j,c,n,b.length - j);
+      n = n + b.length - j;
+      return Arrays.copyOf(c,n);
+   }
+
+   // equals
+   @Override
+   public boolean equals(Object o)
+   {
+      boolean isSparseData = (o instanceof SparseData);
+      if (!isSparseData)  return false;
+      SparseData S = (SparseData) o;
+      if (this == S)  return true;
+      if (this.size != S.size)  return false;
+      return this.hammingDistanceTo(S) == 0;
+   }
+
+   // hashCode (based on the fingerprint)
+   @Override
+   public int hashCode()
+   {
+      long h = this.fingerprint();
+      return (int) (h ^ (h >>> 32));
+   }
+
+   // toString
+   @Override
+   public String toString()
+   {
+      return this.toData().toString();
+   }
+
+   // main
+   public static void main(String[] args)
+   {
+      System.out.println("SparseData class\n");
+      int NTESTS = 1000;
+      int min = 2;
+      int max = 100000;
+      long seed = 0;
+      Random R = new Random();
+      if (args != null && args.length > 0)
+         seed = Long.parseLong(args[0]);
+      else
+         seed = Math.abs(R.nextLong());
+      System.out.println("Random seed set to : " + seed);
+      R = new Random(seed);
+
+      // constructors, conversions and set-bit iteration
+      System.out.print("Testing constructors, toData and set-bit iteration ... ");
+      for (int itest = 0; itest < NTESTS; itest++)
+      {
+         try
+         {
+            Exception E = new Exception("public SparseData(Data) and public Data toData()");
+            int n = min + R.nextInt(itest%10 == 0 ? max : 5000);
+            MutableData M = new MutableData(new Data(n,false),R);
+            int k = R.nextBoolean() ? R.nextInt(1 + n/512) : R.nextInt(n);
+            for (int t = 0; t < k; t++)  M.flip(R.nextInt(n));
+            Data D = M.freeze();
+            SparseData S = new SparseData(D);
+            if (S.isSparse() != SparseData.isSparse(n,D.numberOfOnes())) throw E;
+            if (S.numberOfBits() != n) throw E;
+            if (S.numberOfOnes() != D.numberOfOnes()) throw E;
+            if (!S.toData().equals(D)) throw E;
+            if (S.fingerprint() != D.fingerprint()) throw E;
+            for (int t = 0; t < 10; t++)
+            {
+               k = R.nextInt(n);
+               if (S.getBit(k) != D.getBit(k)) throw E;
+               if (S.nextSetBit(k) != D.nextSetBit(k)) throw E;
+            }
+
+            E = new Exception("public SparseData(int,int[])");
+            int[] ones = new int [D.numberOfOnes()];
+            Data.setBitIterator It = D.setBits();
+            for (int i = 0; i < ones.length; i++)  ones[i] = It.nextInt();
+            for (int i = ones.length - 1; i > 0; i--)
+            {
+               int j = R.nextInt(i + 1);
+               int tmp = ones[i];
+               ones[i] = ones[j];
+               ones[j] = tmp;
+            }
+            SparseData T = new SparseData(n,ones);
+            if (!T.equals(S)) throw E;
+            if (T.hashCode() != S.hashCode()) throw E;
+            if (T.isSparse() != S.isSparse()) throw E;
+
+            E = new Exception("public PrimitiveIterator.OfInt setBits() and public void forEachSetBit(IntConsumer)");
+            PrimitiveIterator.OfInt Is = S.setBits();
+            It = D.setBits();
+            while (It.hasNext())  if (!Is.hasNext() || Is.nextInt() != It.nextInt()) throw E;
+            if (Is.hasNext()) throw E;
+            int[] count = {0};
+            S.forEachSetBit(b -> count[0]++);
+            if (count[0] != D.numberOfOnes()) throw E;
+         }
+         catch (Exception e)
+         {
+            e.printStackTrace();
+            System.exit(1);
+         }
+      }
+      System.out.println("OK");
+
+      // Hamming distance, xor and neighbourhood
+      System.out.print("Testing hammingDistanceTo, xor and randomSelectInNeighbourhood ... ");
+      for (int itest = 0; itest < NTESTS; itest++)
+      {
+         try
+         {
+            Exception E = new Exception("public int hammingDistanceTo(SparseData) and public static SparseData xor(SparseData,SparseData)");
+            int n = min + R.nextInt(itest%10 == 0 ? max : 5000);
+            MutableData M1 = new MutableData(new Data(n,false),R);
+            MutableData M2 = new MutableData(new Data(n,false),R);
+            int k1 = R.nextBoolean() ? R.nextInt(1 + n/512) : R.nextInt(n);
+            int k2 = R.nextBoolean() ? R.nextInt(1 + n/512) : R.nextInt(n);
+            for (int t = 0; t < k1; t++)  M1.flip(R.nextInt(n));
+            for (int t = 0; t < k2; t++)  M2.flip(R.nextInt(n));
+            Data D1 = M1.freeze();
+            Data D2 = M2.freeze();
+            SparseData S1 = new SparseData(D1);
+            SparseData S2 = new SparseData(D2);
+            if (S1.hammingDistanceTo(S2) != D1.hammingDistanceTo(D2)) throw E;
+            if (S2.hammingDistanceTo(S1) != D1.hammingDistanceTo(D2)) throw E;
+            SparseData X = SparseData.xor(S1,S2);
+            if (!X.toData().equals(Data.xor(D1,D2))) throw E;
+            if (X.isSparse() != SparseData.isSparse(n,X.numberOfOnes())) throw E;
+
+            E = new Exception("public SparseData randomSelectInNeighbourhood(int,int,Random)");
+            int u = 1 + R.nextInt(R.nextBoolean() ? Math.min(n,20) : n);
+            int l = 1 + R.nextInt(u);
+            SparseData N = S1.randomSelectInNeighbourhood(l,u,R);
+            int h = N.hammingDistanceTo(S1);
+            if (h < Math.min(l,n - 1) || h > u) throw E;
+            if (N.isSparse() != SparseData.isSparse(n,N.numberOfOnes())) throw E;
+            if (N.toData().hammingDistanceTo(D1) != h) throw E;
+         }
+         catch (Exception e)
+         {
+            e.printStackTrace();
+            System.exit(1);
+         }
+      }
+      System.out.println("OK");
+
+      // ending
+      System.out.println();
+   }
+}
+
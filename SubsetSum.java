@@ -7,7 +7,7 @@
  * - initial version coded by Franck Kouamelan (M1 Miage 2020-21)
  * - constructors rewritten (automatic generation)
  *
- * last update: April 16, 2023
+ * last update: October 18, 2026
  *
  * AM
  */
@@ -16,7 +16,6 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Arrays;
 import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.Random;
 
 public class SubsetSum implements Objective
@@ -148,11 +147,10 @@ public class SubsetSum implements Objective
          System.exit(1);
       }
 
-      // computing the partial sum for selected elements
+      // computing the partial sum for selected elements (only the bits set to 1 are visited)
       int sum = 0;
-      Iterator<Integer> It1 = D.iterator();
-      Iterator<Integer> It2 = this.listOfIntegers.iterator();
-      while (It1.hasNext() && It2.hasNext())  sum = sum + (It1.next() * It2.next());
+      Data.setBitIterator ItData = D.setBits();
+      while (ItData.hasNext())  sum = sum + this.listOfIntegers.get(ItData.nextInt());
 
       // measuring the difference with the target value
       return (double) Math.abs(sum - this.target);
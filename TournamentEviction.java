@@ -0,0 +1,133 @@
+
+/* TournamentEviction class
+ *
+ * binMeta project
+ *
+ * Random-k tournament eviction policy: k entries are randomly selected (without repetitions), and the victim
+ * is the one having the worst (largest) objective function value among them. It is a cheap approximation of
+ * the Worst-Out policy: no structures need to be updated on loads and accesses, and the selection of the
+ * victim takes O(k) time (for k = 1, the victim is a random entry; for k = capacity, it is the worst entry).
+ *
+ * last update: October 18, 2026
+ *
+ * AM
+ */
+
+import java.util.Random;
+
+public class TournamentEviction implements EvictionPolicy
+{
+   private Memory M;  // the Memory object the policy is attached to
+   private int k;  // tournament size
+   private Random R;  // random number generator
+   private int[] perm;  // a permutation of the positions (the first k elements are shuffled for every tournament)
+
+   // TournamentEviction constructor
+   public TournamentEviction(int k,Random R)
+   {
+      try
+      {
+         if (k <= 0) throw new Exception("TournamentEviction: the tournament size must be positive");
+         if (R == null) throw new Exception("TournamentEviction: the Random object is null");
+      }
+      catch (Exception e)
+      {
+         e.printStackTrace();
+         System.exit(1);
+      }
+
+      this.M = null;
+      this.k = k;
+      this.R = R;
+   }
+
+   // TournamentEviction constructor
+   public TournamentEviction(int k)
+   {
+      this(k,new Random());
+   }
+
+   // TournamentEviction constructor (default tournament size is 4)
+   public TournamentEviction()
+   {
+      this(4);
+   }
+
+   // getName
+   @Override
+   public String getName()
+   {
+      return "TOURNAMENT";
+   }
+
+   // attach
+   @Override
+   public void attach(Memory M)
+   {
+      try
+      {
+         if (M == null) throw new Exception("TournamentEviction: the Memory object is null");
+         if (this.M != null) throw new Exception("TournamentEviction: the policy is already attached to another Memory object");
+      }
+      catch (Exception e)
+      {
+         e.printStackTrace();
+         System.exit(1);
+      }
+
+      this.M = M;
+      this.perm = new int [M.getCapacity()];
+      for (int i = 0; i < this.perm.length; i++)  this.perm[i] = i;
+   }
+
+   // loaded
+   @Override
+   public void loaded(int i)
+   {
+   }
+
+   // accessed
+   @Override
+   public void accessed(int i)
+   {
+   }
+
+   // removed
+   @Override
+   public void removed(int i)
+   {
+   }
+
+   // exchanged
+   @Override
+   public void exchanged(int i,int j)
+   {
+   }
+
+   // victim (gives -1 when no entries are selected)
+   // -> partial Fisher-Yates shuffle of the permutation: the first k elements are a random subset of the positions
+   // -> the empty positions (if any) are ignored; ties are broken by the smallest position
+   @Override
+   public int victim()
+   {
+      int n = this.perm.length;
+      int worst = -1;
+      double worstValue = 0.0;
+      for (int t = 0; t < this.k && t < n; t++)
+      {
+         int r = t + this.R.nextInt(n - t);
+         int i = this.perm[r];
+         this.perm[r] = this.perm[t];
+         this.perm[t] = i;
+         Double value = this.M.valueAt(i);
+         if (value == null)  continue;
+         if (worst == -1 || value > worstValue || (value == worstValue && i < worst))
+         {
+            worst = i;
+            worstValue = value;
+         }
+      }
+      return worst;
+   }
+}
+
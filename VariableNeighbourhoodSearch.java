@@ -13,7 +13,7 @@
  * the number of solutions that are to be randomly extracted from each neighbourhood. When possible, we rather perform
  * an exhaustive search on the current neighbourhood.
  *
- * last update: April 16, 2023
+ * last update: October 18, 2026
  *
  * AM
  */
@@ -30,7 +30,7 @@ public class VariableNeighbourhoodSearch extends binMeta implements Objective
    private int l;  // current lower bound on Hamming distance (for the definition of the neighbourhoods)
    private int u;  // current upper bound on Hamming distance (idem)
    private double alpha;  // alpha coefficient for skewed procedure for neighhourhood update
-   private Data mask;  // used for exhaustively exploring some (relatively) small neighbourhoods
+   private Data.combinationIterator circle;  // used for exhaustively exploring some (relatively) small neighbourhoods
    private final String[] variant = {"basic","cyclic","pipe","jumping","skewed","nested"};  // VNS variant names
 
    // VariableNeighbourhoodSearch constructor
@@ -57,7 +57,7 @@ public class VariableNeighbourhoodSearch extends binMeta implements Objective
          this.l = 2;
          this.u = 2;
          this.alpha = 1.0;
-         this.mask = null;
+         this.circle = null;
       }
       catch (Exception e)
       {
@@ -90,7 +90,7 @@ public class VariableNeighbourhoodSearch extends binMeta implements Objective
          this.l = 0;
          this.u = 0;
          this.alpha = 0.0;
-         this.mask = null;
+         this.circle = null;
       }
       catch (Exception e)
       {
@@ -188,7 +188,7 @@ public class VariableNeighbourhoodSearch extends binMeta implements Objective
       // verifying whether the number of solutions in the neighbourhoods is larger than maxAttempts
       for (int k = 0; k < nbits/2; k++)
       {
-         if (this.solution.numberOfDataOnCircle(k+1) <= this.maxAttempts)
+         if (this.solution.isCircleSmallerThan(k+1,this.maxAttempts + 1L))
          {
             exhaustive[k] = true;
             exhaustive[nbits - k - 2] = true;
@@ -201,43 +201,31 @@ public class VariableNeighbourhoodSearch extends binMeta implements Objective
    }
 
    // iterating exhaustively over the current neighbourhood
+   // - the Hamming circles with radius from l to u are enumerated one after the other
+   // - the returned object is modified in place at every call (it needs to be copied to be kept)
    private Data exhaustivelyExploreNeighbourhood()
    {
-      int nbits = this.solution.numberOfBits();
-
-      if (this.mask == null)  // first iteration of the exhaustive search
-      {
-         this.mask = new Data(new Data(nbits - this.l,false),new Data(this.l,true));
-         return new Data(this.solution,this.mask,"xor");
-      }
-
-      // for all other iterations of the exhaustive search
-      Data.bitIterator bit = this.mask.iterator();
-      int k = 0;
-      while (bit.hasNext() && bit.next() == 1)  k++;
-      if (k < this.mask.numberOfOnes())
+      if (this.circle == null)  // first iteration of the exhaustive search
       {
-         // current mask indicates that the exploration of the current circle is not over yet
-         while (bit.hasNext() && bit.next() == 0)  k++;
-         Data three = new Data(new Data(nbits - 2,false),Data.valueOf(3,2));
-         Data mm = Data.shift(three,k - nbits + 2);
-         this.mask = new Data(this.mask,mm,"xor");
-         return new Data(this.solution,this.mask,"xor");
+         this.circle = this.solution.combinations(this.l);
       }
-      else
+      else if (!this.circle.hasNext())
       {
          // exploration of current circle is over; are there any others?
+         int k = this.circle.getCurrentIndices().length;
          if (k < this.u)
          {
-            k = k + 1;
-            this.mask = new Data(new Data(nbits - k,false),new Data(k,true));
-            return new Data(this.solution,this.mask,"xor");
+            this.circle = this.solution.combinations(k + 1);
          }
-     }
+         else
+         {
+            // if we reach this point, the exhaustive search is over
+            this.circle = null;
+            return null;
+         }
+      }
 
-     // if we reach this point, the exhaustive search is over
-     this.mask = null;
-     return null;
+      return this.circle.next();
    }
 
    // shaking procedure
@@ -269,28 +257,6 @@ public class VariableNeighbourhoodSearch extends binMeta implements Objective
       else this.resetNeighbourhood();
    }
 
-   // keep best solution
-   private Data keepBest(Data sol1,Data sol2)
-   {
-      try
-      {
-         Exception E = new Exception("Internal error: something wrong with Data objects");
-         if (sol1 == null) throw E;
-         if (sol2 == null) throw E;
-         if (sol1.numberOfBits() != sol2.numberOfBits()) throw E;
-      }
-      catch (Exception e)
-      {
-         e.printStackTrace();
-         System.exit(1);
-      }
-
-      double value1 = this.obj.value(sol1);
-      double value2 = this.obj.value(sol2);
-      if (value1 < value2)  return sol1;
-      return sol2;
-   }
-
    // update solution
    private boolean updateSolution(Data current)
    {
@@ -447,19 +413,37 @@ public class VariableNeighbourhoodSearch extends binMeta implements Objective
          Data best = this.obj.solutionSample();
          if (smallenough)  // exhaustive search
          {
+            double bestValue = this.obj.value(best);
             Data current;
             do {
                current = this.exhaustivelyExploreNeighbourhood();
-               if (current != null)  best = this.keepBest(current,best);
+               if (current != null)
+               {
+                  double value = this.obj.value(current);
+                  if (value < bestValue)
+                  {
+                     best = new Data(current);
+                     bestValue = value;
+                  }
+               }
             }
             while (current != null);
          }
          else  // random search (Fleszar-Hindi extension with maxAttempts)
          {
+            // shaking is performed in place on a scratch copy of the current solution
+            MutableData current = new MutableData(this.solution);
+            double bestValue = this.obj.value(best);
             for (int k = 0; k < this.maxAttempts; k++)
             {
-               Data current = this.shake();
-               best = this.keepBest(current,best);
+               current.randomMoveInNeighbourhood(this.l,this.u);
+               double value = this.obj.value(current);
+               if (value < bestValue)
+               {
+                  best = current.freeze();
+                  bestValue = value;
+               }
+               current.revert();
             }
          }
 
@@ -491,12 +475,10 @@ public class VariableNeighbourhoodSearch extends binMeta implements Objective
       }
 
       // loading the VNS type
-      Data D1 = new Data(D,0,3);
-      this.procedure = D1.intValue()%6;  // the first 3 variants are represented twice
+      this.procedure = (int) D.getUnsigned(0,3)%6;  // the first 3 variants are represented twice
 
       // loading the maxAttempts parameter from Data object
-      Data D2 = new Data(D,3,15);
-      this.maxAttempts = D.posIntValue();
+      this.maxAttempts = 1 + (int) D.getUnsigned(3,12);
 
       // initializing starting point
       this.solution = this.obj.solutionSample();
@@ -5,7 +5,7 @@
  *
  * initial version coded by Remi Viotty, M1 Info 2019-20
  *
- * last update: April 16, 2023
+ * last update: October 18, 2026
  *
  * AM
  */
@@ -23,6 +23,7 @@ public class WolfSearch extends binMeta implements Objective
    private double maxThreat;  // maximal threat probability
    private int memorySize;  // the size of wolf memory
    private Memory wolves;  // Wolf population
+   private static Data.fieldLayout parameters = new Data.fieldLayout(9,8,2,2,4,4);  // layout of the parameters (as an Objective)
 
    // WolfSearch constructor
    public WolfSearch(Data startPoint,Objective obj,int np,int memorySize,int minVision,int maxVision,double minThreat,double maxThreat,long maxTime)
@@ -54,7 +55,7 @@ public class WolfSearch extends binMeta implements Objective
          this.wolves = new Memory(this.np,"fifo",3);  // 3 Memory parameters: vision, pbThrets, ephemeral memory
          while (!this.wolves.isFull())
          {
-            Data D = startPoint.randomSelectInNeighbourhood(1 + R.nextInt(n/2));
+            Data D = startPoint.randomSelectInNeighbourhood(1 + R.nextInt(n/2),R);
             int k = this.wolves.add(D,this.obj.value(D));
             int vision = minVision;
             if (maxVision - minVision > 0)  vision = vision + R.nextInt(maxVision - minVision);
@@ -123,8 +124,7 @@ public class WolfSearch extends binMeta implements Objective
    @Override
    public Data solutionSample()
    {
-      int size = 29; // 9(np) + 8(memorySize) + 2(minVision) + 2(maxVision) + 4(minThreat) + 4(maxThreat)
-      return new Data(size,0.5);
+      return new Data(WolfSearch.parameters.numberOfBits(),0.5);  // 9(np) + 8(memorySize) + 2(minVision) + 2(maxVision) + 4(minThreat) + 4(maxThreat)
    }
 
    // upperBound
@@ -168,7 +168,7 @@ public class WolfSearch extends binMeta implements Objective
              Memory wolfMemory = (Memory) this.wolves.getParameter(i,2);
 
              // trying to prey for new food initiatively
-             Data D = wolf.randomSelectInNeighbourhood(vision);
+             Data D = wolf.randomSelectInNeighbourhood(vision,R);
              if (R.nextInt(2) == 0)
              {
                 LocalOpt lopt = new LocalOpt(D,this.obj,localTime);
@@ -190,18 +190,15 @@ public class WolfSearch extends binMeta implements Objective
                 for (int j = 0; j < this.np; j++)
                 {
                    // is there any other wolf doing better than wolf i ?
-                   if (i != j)
+                   if (i != j && this.wolves.getValue(j) < wolfValue)
                    {
+                      // wolf i can see the other, and it is closer than the current choice
                       Data other = this.wolves.getData(j);
-                      int h = wolf.hammingDistanceTo(other);
-                      if (h < vision)  // wolf i can see the other
+                      int limit = Math.min(vision,repulsion) - 1;
+                      if (limit >= 0 && wolf.hammingDistanceAtMost(other,limit))
                       {
-                         value = this.wolves.getValue(j);
-                         if (value < wolfValue && h < repulsion)
-                         {
-                            toapproach = j;
-                            repulsion = h;
-                         }
+                         toapproach = j;
+                         repulsion = wolf.hammingDistanceTo(other);
                       }
                    }
                 }
@@ -210,7 +207,7 @@ public class WolfSearch extends binMeta implements Objective
                    // wolf i joins the selected wolf
                    Data other = this.wolves.getData(toapproach);
                    wolfMemory.add(wolf);
-                   D = other.randomSelectInNeighbourhood(1);
+                   D = other.randomSelectInNeighbourhood(1,R);
                    value = this.obj.value(D);
                    this.wolves.set(i,D,value);
                 }
@@ -218,7 +215,7 @@ public class WolfSearch extends binMeta implements Objective
                 // any threats?
                 if (R.nextDouble() < pbThreat)
                 {
-                   D = wolf.randomSelectInNeighbourhood(vision,vision);
+                   D = wolf.randomSelectInNeighbourhood(vision,vision,R);
                    value = this.obj.value(D);
                    this.wolves.set(i,D,value);
                 }
@@ -248,7 +245,7 @@ public class WolfSearch extends binMeta implements Objective
          if (!this.isObjective) 
             throw new Exception("WolfSearch: call to 'loadParameters' is not allowed when the object is not initialized as an Objective");
          if (D == null) throw new Exception("WolfSearch: Data object is null");
-         if (D.numberOfBits() != 29) throw new Exception("WolfSearch: Unexpected bit string length in Data object");
+         if (D.numberOfBits() != WolfSearch.parameters.numberOfBits()) throw new Exception("WolfSearch: Unexpected bit string length in Data object");
       }
       catch (Exception e)
       {
@@ -260,15 +257,15 @@ public class WolfSearch extends binMeta implements Objective
       int n = this.obj.solutionSample().numberOfBits();
 
       // extracting decision variables from Data object, and copying in attributes
-      this.np = new Data(D,0,9).posIntValue();  // 10 bits (np)
-      this.memorySize = new Data(D,9,17).posIntValue();  // 8 bits (memorySize)
+      this.np = 1 + (int) WolfSearch.parameters.getUnsigned(D,0);  // 9 bits (np)
+      this.memorySize = 1 + (int) WolfSearch.parameters.getUnsigned(D,1);  // 8 bits (memorySize)
       int[] visions = {n/8,2*n/8,3*n/8,4*n/8,5*n/8,6*n/8,7*n/8,n};
-      int min = new Data(D,17,19).intValue();  // 2 bits (minVision)
+      int min = (int) WolfSearch.parameters.getUnsigned(D,2);  // 2 bits (minVision)
       this.minVision = visions[min];
-      int max = new Data(D,19,21).intValue();  // 2 bits (maxVision)
+      int max = (int) WolfSearch.parameters.getUnsigned(D,3);  // 2 bits (maxVision)
       this.maxVision = visions[min + max];
-      this.minThreat = 0.5*(new Data(D,21,25).doubleValueNormalized());  // 4 bits (minThreat)
-      this.maxThreat = minThreat + 0.5*(new Data(D,25,29).doubleValueNormalized());  // 4 bits (maxThreat)
+      this.minThreat = 0.5*WolfSearch.parameters.getNormalized(D,4);  // 4 bits (minThreat)
+      this.maxThreat = minThreat + 0.5*WolfSearch.parameters.getNormalized(D,5);  // 4 bits (maxThreat)
    }
 
    // parametersToString
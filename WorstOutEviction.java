@@ -0,0 +1,81 @@
+
+/* WorstOutEviction class
+ *
+ * binMeta project
+ *
+ * Worst-Out eviction policy: the victim is the entry having the worst (largest) objective function value.
+ * The Memory object already keeps its entries in a heap ordered by value (see Memory.indexOfWorst),
+ * hence this policy has no structures to update.
+ *
+ * last update: October 18, 2026
+ *
+ * AM
+ */
+
+public class WorstOutEviction implements EvictionPolicy
+{
+   private Memory M;  // the Memory object the policy is attached to
+
+   // WorstOutEviction constructor
+   public WorstOutEviction()
+   {
+      this.M = null;
+   }
+
+   // getName
+   @Override
+   public String getName()
+   {
+      return "WO";
+   }
+
+   // attach
+   @Override
+   public void attach(Memory M)
+   {
+      try
+      {
+         if (M == null) throw new Exception("WorstOutEviction: the Memory object is null");
+         if (this.M != null) throw new Exception("WorstOutEviction: the policy is already attached to another Memory object");
+      }
+      catch (Exception e)
+      {
+         e.printStackTrace();
+         System.exit(1);
+      }
+
+      this.M = M;
+   }
+
+   // loaded
+   @Override
+   public void loaded(int i)
+   {
+   }
+
+   // accessed
+   @Override
+   public void accessed(int i)
+   {
+   }
+
+   // removed
+   @Override
+   public void removed(int i)
+   {
+   }
+
+   // exchanged
+   @Override
+   public void exchanged(int i,int j)
+   {
+   }
+
+   // victim (the top of the heap of the worst entries)
+   @Override
+   public int victim()
+   {
+      return this.M.indexOfWorst();
+   }
+}
+